@@ -0,0 +1,34 @@
+package com.project.back_end.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in a patient's appointment history, which is ordered by (appointmentTime, id): the next page starts after
+// this appointment.
+//    - Sent to clients as an opaque URL-safe string, so they only pass back the `nextCursor` they were given.
+public record AppointmentCursor(LocalDateTime appointmentTime, Long id) {
+
+    public static AppointmentCursor after(AppointmentDTO last) {
+        return new AppointmentCursor(last.getAppointmentTime(), last.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((id + ":" + appointmentTime).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null if the value is not a cursor produced by `encode`.
+    public static AppointmentCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 1) {
+                return null;
+            }
+            return new AppointmentCursor(LocalDateTime.parse(decoded.substring(separator + 1)), Long.valueOf(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
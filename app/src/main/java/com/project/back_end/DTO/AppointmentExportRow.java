@@ -0,0 +1,15 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Appointment;
+import java.time.LocalDateTime;
+
+// One appointment as written by the appointment export: only the columns needed for reconciliation, projected straight
+// from the query (no entities, and never the patient's password).
+public record AppointmentExportRow(Long id, Long doctorId, LocalDateTime appointmentTime, Integer durationMinutes, int status,
+        Long patientId, String patientName, String patientEmail, String patientPhone) {
+
+    // Bookings stored without a duration are exported with the default one.
+    public AppointmentExportRow {
+        durationMinutes = durationMinutes == null ? Appointment.DEFAULT_DURATION_MINUTES : durationMinutes;
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+// One page of a patient's appointment history; `nextCursor` is null on the last page.
+public record AppointmentPage(List<AppointmentDTO> appointments, String nextCursor) {
+}
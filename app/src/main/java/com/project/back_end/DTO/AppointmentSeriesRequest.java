@@ -0,0 +1,12 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Request body of `POST /appointments/batch`: several appointments with one doctor for the calling patient.
+//    - Either list the start times in `appointmentTimes`, or describe a series: `firstAppointment` repeated every
+//      `intervalDays` (default 7) for `occurrences` appointments in total.
+//    - `durationMinutes` applies to every appointment of the request (default: `Appointment.DEFAULT_DURATION_MINUTES`).
+public record AppointmentSeriesRequest(Long doctorId, List<LocalDateTime> appointmentTimes, LocalDateTime firstAppointment,
+        Integer intervalDays, Integer occurrences, Integer durationMinutes) {
+}
@@ -0,0 +1,11 @@
+package com.project.back_end.DTO;
+
+// Immutable identity of the caller, resolved once per request from the token's verified claims.
+//    - `id` is the primary key of the admin, doctor, or patient row named by `role`.
+//    - `email` is the token subject (the username for admins).
+public record AuthenticatedPrincipal(Long id, String role, String email) {
+
+    public boolean hasRole(String expectedRole) {
+        return role != null && role.equals(expectedRole);
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Appointment;
+import java.time.LocalDateTime;
+
+// Projection of a booked appointment to just what availability needs: the doctor, the start time and the duration.
+public record BookedSlot(Long doctorId, LocalDateTime appointmentTime, Integer durationMinutes) {
+
+    // The duration, with the default for bookings stored without one.
+    public int minutes() {
+        return durationMinutes == null ? Appointment.DEFAULT_DURATION_MINUTES : durationMinutes;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// Outcome of one slot of a batch booking: `booked` (with the new appointment id), `conflict` or `invalid` (with a reason).
+public record BookingResult(LocalDateTime appointmentTime, String status, Long appointmentId, String error) {
+    public static final String BOOKED = "booked";
+    public static final String CONFLICT = "conflict";
+    public static final String INVALID = "invalid";
+
+    public static BookingResult booked(LocalDateTime appointmentTime, Long appointmentId) {
+        return new BookingResult(appointmentTime, BOOKED, appointmentId, null);
+    }
+
+    public static BookingResult rejected(LocalDateTime appointmentTime, String status, String error) {
+        return new BookingResult(appointmentTime, status, null, error);
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Appointment;
+import java.time.LocalDateTime;
+
+// One row of the doctor dashboard, as stored in the daily schedule read model (`DailyScheduleReadModel`).
+//    - Keeps the nested `doctor.id` / `patient.{id,name,phone,email}` shape the dashboard already reads from appointment
+//      entities, without the rest of the entities (in particular the patient's password).
+//    - Holds nothing a status-only update can change, so those updates never have to touch the read model.
+public record DashboardAppointment(Long id, LocalDateTime appointmentTime, int durationMinutes, DoctorRef doctor, PatientRef patient) {
+
+    // Flat form used by the JPQL constructor projection.
+    public DashboardAppointment(Long id, LocalDateTime appointmentTime, Integer durationMinutes, Long doctorId,
+            Long patientId, String patientName, String patientPhone, String patientEmail) {
+        this(id, appointmentTime, durationMinutes == null ? Appointment.DEFAULT_DURATION_MINUTES : durationMinutes,
+                new DoctorRef(doctorId), patientId == null ? null : new PatientRef(patientId, patientName, patientPhone, patientEmail));
+    }
+
+    public record DoctorRef(Long id) {
+    }
+
+    public record PatientRef(Long id, String name, String phone, String email) {
+    }
+}
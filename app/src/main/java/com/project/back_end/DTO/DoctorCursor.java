@@ -0,0 +1,31 @@
+package com.project.back_end.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in the doctor listing, which is ordered by (name, id): the next page starts after this doctor.
+//    - Sent to clients as an opaque URL-safe string, so they only pass back the `nextCursor` they were given.
+public record DoctorCursor(String name, Long id) {
+
+    public static DoctorCursor after(DoctorSummary last) {
+        return new DoctorCursor(last.name(), last.id());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null if the value is not a cursor produced by `encode`.
+    public static DoctorCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 1) {
+                return null;
+            }
+            return new DoctorCursor(decoded.substring(separator + 1), Long.valueOf(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+// One page of the doctor listing; `nextCursor` is null on the last page.
+public record DoctorPage(List<DoctorSummary> doctors, String nextCursor) {
+}
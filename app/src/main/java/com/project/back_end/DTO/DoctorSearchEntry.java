@@ -0,0 +1,5 @@
+package com.project.back_end.DTO;
+
+// Projection of a doctor to the fields the in-memory search index covers.
+public record DoctorSearchEntry(Long id, String name, String specialty) {
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+// Autocomplete response: matching doctor names and specialties, the ones shared by the most doctors first.
+public record DoctorSuggestions(List<String> names, List<String> specialties) {
+}
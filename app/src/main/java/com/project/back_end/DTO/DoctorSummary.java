@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+// Slim row of the paginated doctor listing, built directly by the query (no managed `Doctor` entities).
+//    - `workingDays` is the number of weekdays with at least one weekly block; `availableAm` / `availablePm` tell whether
+//      any of those blocks offers a morning / afternoon slot. Date-specific exceptions are not summarised.
+public record DoctorSummary(Long id, String name, String specialty, String phone, Long workingDays, Boolean availableAm, Boolean availablePm) {
+}
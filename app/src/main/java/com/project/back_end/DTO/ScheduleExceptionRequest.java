@@ -0,0 +1,9 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Request body for a date-specific schedule change: time off (`available` false; omit start/end for the whole day)
+// or an extra clinic (`available` true, with start and end).
+public record ScheduleExceptionRequest(LocalDate date, LocalTime start, LocalTime end, boolean available) {
+}
@@ -0,0 +1,8 @@
+package com.project.back_end.DTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// One weekly block of a doctor's schedule as sent and returned by the schedule endpoints, e.g. MONDAY 09:00-12:00.
+public record ScheduleRange(DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {
+}
@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// Request body of `POST /appointments/hold`: the doctor and the start time of the slot to reserve.
+public record SlotHoldRequest(Long doctorId, LocalDateTime appointmentTime) {
+}
@@ -0,0 +1,8 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A free slot offered by the "earliest available" search: which doctor, which day, and the slot as configured ("HH:mm-HH:mm").
+public record SlotSuggestion(Long doctorId, String doctorName, String specialty, LocalDate date, String slot, LocalDateTime start) {
+}
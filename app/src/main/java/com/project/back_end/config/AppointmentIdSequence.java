@@ -0,0 +1,33 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Appointment;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Moves the appointment id sequence past the ids already in the table.
+//    - Appointments used to take their ids from an IDENTITY column; the pooled sequence that replaced it (so inserts can be
+//      JDBC-batched) starts at 1 when Hibernate creates it, which would collide with existing rows.
+//    - MySQL has no native sequences, so Hibernate keeps the sequence as a one-row table with a `next_val` column.
+//    - Runs once every singleton (including the EntityManagerFactory that creates the sequence table) exists, but before
+//      the web server starts, so no request can insert an appointment with a colliding id first.
+//    - Idempotent: the value only ever moves forward.
+@Component
+public class AppointmentIdSequence implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentIdSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM appointment", Long.class);
+            long floor = (maxId == null ? 0 : maxId) + Appointment.ID_ALLOCATION_SIZE + 1;
+            jdbcTemplate.update("UPDATE " + Appointment.ID_SEQUENCE + " SET next_val = ? WHERE next_val < ?", floor, floor);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
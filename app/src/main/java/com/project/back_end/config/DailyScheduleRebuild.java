@@ -0,0 +1,33 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.DailyScheduleReadModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Regenerates the doctor dashboard read model (`DoctorDaySchedule` rows) from the appointment table when the application
+// is started with `--rebuild-daily-schedules`, e.g. after restoring appointments from a backup or editing them by hand.
+//    - The application keeps serving while it runs; days read before their doctor is rebuilt are computed on demand.
+@Component
+public class DailyScheduleRebuild implements ApplicationRunner {
+    public static final String OPTION = "rebuild-daily-schedules";
+    private static final Logger log = LoggerFactory.getLogger(DailyScheduleRebuild.class);
+
+    private final DailyScheduleReadModel readModel;
+
+    public DailyScheduleRebuild(DailyScheduleReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long rows = readModel.rebuild();
+        log.info("Rebuilt {} daily schedule rows in {} ms", rows, System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.back_end.config;
+
+import com.project.back_end.DTO.ScheduleRange;
+import com.project.back_end.models.WeeklyAvailability;
+import com.project.back_end.services.ScheduleService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves doctors' legacy `availableTimes` (the `doctor_available_times` element-collection table) into weekly schedule rows.
+//    - Each legacy slot string becomes a one-slot block on every weekday, which is what it meant before.
+//    - Migrated rows are deleted from the legacy table, so this runs once per doctor and later schedule edits are never
+//      overwritten. Databases created after the change have no legacy table, and the migration does nothing.
+//    - Each doctor's inserts and legacy-row delete commit together, so an interrupted migration never duplicates blocks.
+//    - Runs before the web server starts, so no availability or search cache can be filled from a half-migrated schedule.
+//    - Weekly blocks written before blocks stored their `offers_am`/`offers_pm` flags get them filled in, so the doctor
+//      time-of-day filter (an SQL EXISTS on those flags) sees every block.
+@Component
+public class DoctorScheduleMigration implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DoctorScheduleMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateLegacyTimes();
+        fillDayparts();
+    }
+
+    private void migrateLegacyTimes() {
+        Map<Long, List<String>> legacy = new LinkedHashMap<>();
+        try {
+            jdbcTemplate.query("SELECT doctor_id, available_times FROM doctor_available_times", row -> {
+                legacy.computeIfAbsent(row.getLong(1), id -> new ArrayList<>()).add(row.getString(2));
+            });
+        } catch (Exception e) {
+            return; // No legacy table
+        }
+        try {
+            for (Map.Entry<Long, List<String>> doctor : legacy.entrySet()) {
+                List<Object[]> blocks = new ArrayList<>();
+                for (ScheduleRange range : ScheduleService.everyDay(doctor.getValue())) {
+                    WeeklyAvailability block = new WeeklyAvailability(null, range.dayOfWeek(), range.start(), range.end());
+                    blocks.add(new Object[] {doctor.getKey(), range.dayOfWeek().name(), Time.valueOf(range.start()), Time.valueOf(range.end()),
+                            block.getOffersAm(), block.getOffersPm()});
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate("INSERT INTO weekly_availability (doctor_id, day_of_week, start_time, end_time, offers_am, offers_pm) VALUES (?, ?, ?, ?, ?, ?)", blocks);
+                    jdbcTemplate.update("DELETE FROM doctor_available_times WHERE doctor_id = ?", doctor.getKey());
+                });
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void fillDayparts() {
+        try {
+            List<Object[]> flags = new ArrayList<>();
+            jdbcTemplate.query("SELECT id, start_time, end_time FROM weekly_availability WHERE offers_am IS NULL OR offers_pm IS NULL", row -> {
+                WeeklyAvailability block = new WeeklyAvailability(null, null, row.getTime(2).toLocalTime(), row.getTime(3).toLocalTime());
+                flags.add(new Object[] {block.getOffersAm(), block.getOffersPm(), row.getLong(1)});
+            });
+            jdbcTemplate.batchUpdate("UPDATE weekly_availability SET offers_am = ?, offers_pm = ? WHERE id = ?", flags);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
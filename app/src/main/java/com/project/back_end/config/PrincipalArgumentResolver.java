@@ -0,0 +1,26 @@
+package com.project.back_end.config;
+
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Injects the `AuthenticatedPrincipal` resolved by `PrincipalInterceptor` into controller method parameters.
+//    - Resolves to null when the request carried no usable token; callers treat that as unauthorized.
+public class PrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return AuthenticatedPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+            @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return webRequest.getAttribute(PrincipalInterceptor.PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.back_end.config;
+
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Resolves the caller's principal from the `{token}` path variable once per request.
+//    - The principal is stored as a request attribute and injected into controller methods by `PrincipalArgumentResolver`,
+//      so services receive the caller's id and role instead of re-parsing the token and re-querying the user.
+//    - Requests without a token, or with a token that carries no role/id claims, get no principal; every endpoint that
+//      takes one answers 401 then, even if the token still passes the legacy subject-only `validateToken` check.
+@Component
+public class PrincipalInterceptor implements HandlerInterceptor {
+    public static final String PRINCIPAL_ATTRIBUTE = PrincipalInterceptor.class.getName() + ".principal";
+
+    private final TokenService tokenService;
+
+    public PrincipalInterceptor(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> pathVariables && pathVariables.get("token") instanceof String token) {
+            AuthenticatedPrincipal principal = tokenService.resolvePrincipal(token);
+            if (principal != null) {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        }
+        return true;
+    }
+}
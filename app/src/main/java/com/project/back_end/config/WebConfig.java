@@ -4,12 +4,22 @@ package com.project.back_end.config;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull; 
 
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final PrincipalInterceptor principalInterceptor;
+
+    public WebConfig(PrincipalInterceptor principalInterceptor) {
+        this.principalInterceptor = principalInterceptor;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         // Allow CORS for all endpoints
@@ -18,4 +28,15 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
                 .allowedHeaders("*");  // You can restrict headers if needed
     }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Resolve the caller's principal from the token path variable once per request
+        registry.addInterceptor(principalInterceptor);
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new PrincipalArgumentResolver());
+    }
 }
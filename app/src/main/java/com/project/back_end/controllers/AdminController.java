@@ -4,9 +4,11 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import com.project.back_end.services.AppService;
+import com.project.back_end.services.LoginPipeline;
 import com.project.back_end.models.Admin;
 import org.springframework.http.ResponseEntity;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.web.bind.annotation.RequestBody;
 
 // 1. Set Up the Controller Class:
@@ -21,17 +23,20 @@ public class AdminController {
     //    - The service handles core logic related to admin validation and token checking.
     //    - This promotes cleaner code and separation of concerns between the controller and business logic layer.
     private final AppService service;
-    public AdminController(AppService service) {
+    private final LoginPipeline loginPipeline;
+    public AdminController(AppService service, LoginPipeline loginPipeline) {
         this.service = service;
+        this.loginPipeline = loginPipeline;
     }
     // 3. Define the `adminLogin` Method:
     //    - Handles HTTP POST requests for admin login functionality.
     //    - Accepts an `Admin` object in the request body, which contains login credentials.
     //    - Delegates authentication logic to the `validateAdmin` method in the service layer.
     //    - Returns a `ResponseEntity` with a `Map` containing login status or messages.
+    //    - The login runs on the bounded `LoginPipeline` executor so password hashing does not hold a request thread.
     @PostMapping
-    public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin) {
-        return service.validateAdmin(admin);
+    public CompletableFuture<ResponseEntity<Map<String, String>>> adminLogin(@RequestBody Admin admin) {
+        return loginPipeline.submit(() -> service.validateAdmin(admin), error -> Map.of("error", error));
     }
 }
 
@@ -6,10 +6,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RequestParam;
 import com.project.back_end.services.AppService;
+import com.project.back_end.services.AppointmentExport;
 import com.project.back_end.services.AppointmentService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletResponse;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.SlotHoldRequest;
+import com.project.back_end.DTO.AppointmentSeriesRequest;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
 import java.time.LocalDate;
@@ -28,9 +36,11 @@ public class AppointmentController {
     //    - Inject the general `Service` class, which provides shared functionality like token validation and appointment checks.
     private final AppointmentService appointmentService;
     private final AppService service;
-    public AppointmentController(AppointmentService appointmentService, AppService service) {
+    private final AppointmentExport appointmentExport;
+    public AppointmentController(AppointmentService appointmentService, AppService service, AppointmentExport appointmentExport) {
         this.appointmentService = appointmentService;
         this.service = service;
+        this.appointmentExport = appointmentExport;
     }
     // 3. Define the `getAppointments` Method:
     //    - Handles HTTP GET requests to fetch appointments based on date and patient name.
@@ -39,37 +49,92 @@ public class AppointmentController {
     //    - If the token is valid, returns appointments for the given patient on the specified date.
     //    - If the token is invalid or expired, responds with the appropriate message and status code.
     @GetMapping("/{patientName}/{date}/{token:.+}")
-    public ResponseEntity<Map<String, Object>> getAppointments(@PathVariable("patientName") String patientName, @PathVariable("date") String dateSegment, @PathVariable("token") String token) {
+    public ResponseEntity<Map<String, Object>> getAppointments(@PathVariable("patientName") String patientName, @PathVariable("date") String dateSegment, @PathVariable("token") String token, AuthenticatedPrincipal principal) {
         String normalizedName = "all".equalsIgnoreCase(patientName) ? null : patientName;
         LocalDate date = "all".equalsIgnoreCase(dateSegment) ? null : LocalDate.parse(dateSegment);
         ResponseEntity<Map<String,String>> check = service.validateToken(token,"doctor");
         if (!check.getStatusCode().is2xxSuccessful()) {
             return new ResponseEntity<>(new HashMap<>(check.getBody()), check.getStatusCode());
         }
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
 
-        Map<String,Object> results = appointmentService.getAppointments(normalizedName, date, token);
+        Map<String,Object> results = appointmentService.getAppointments(normalizedName, date, principal);
         return ResponseEntity.ok(results);
 
     }
+    // **Define the `exportAppointments` Method**:
+    //    - Handles HTTP GET requests such as `/appointments/export/{token}?format=csv&from=2024-01-01&to=2024-12-31`.
+    //    - Doctors export their own appointments; admins must name the doctor with `doctorId`. `from`/`to` are optional.
+    //    - `format` is `ndjson` (default, one JSON object per line) or `csv` (with a header row).
+    //    - Rows are written to the response as they are read from the database (see `AppointmentExport`), so nothing
+    //      proportional to the export's size is held in memory. Errors are only reported before the first byte is sent.
+    @GetMapping("/export/{token:.+}")
+    public ResponseEntity<Map<String, String>> exportAppointments(@PathVariable String token, AuthenticatedPrincipal principal,
+        @RequestParam(required = false) Long doctorId,
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        HttpServletResponse response) {
+        if (principal == null || !(principal.hasRole("doctor") || principal.hasRole("admin"))) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, principal.role());
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return tokenValidation;
+        }
+        if (principal.hasRole("doctor") && doctorId != null && !doctorId.equals(principal.id())) {
+            return ResponseEntity.status(403).body(Map.of("error", "Doctors can only export their own appointments"));
+        }
+        Long exportedDoctorId = principal.hasRole("doctor") ? principal.id() : doctorId;
+        AppointmentExport.Format exportFormat = AppointmentExport.Format.of(format);
+        if (exportedDoctorId == null || exportFormat == null || (from != null && to != null && to.isBefore(from))) {
+            return ResponseEntity.status(400).body(Map.of("error", "doctorId is required for admins, format must be ndjson or csv, and from must not be after to"));
+        }
+        try {
+            response.setContentType(exportFormat.contentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"appointments-doctor-" + exportedDoctorId + "." + exportFormat.extension() + "\"");
+            appointmentExport.write(exportedDoctorId, from, to, exportFormat, response.getOutputStream());
+        } catch (Exception e) {
+            e.printStackTrace(); // Usually the client went away mid-export, once the response is already committed
+            if (!response.isCommitted()) {
+                response.reset();
+                return ResponseEntity.status(500).body(Map.of("error", "Failed to export appointments"));
+            }
+        }
+        return null;
+    }
     // 4. Define the `bookAppointment` Method:
     //    - Handles HTTP POST requests to create a new appointment.
     //    - Accepts a validated `Appointment` object in the request body and a token as a path variable.
-    //    - Validates the token for the `"patient"` role.
+    //    - Validates the token for the `"patient"` role; a token without role/id claims (no principal) is rejected with 401.
     //    - Uses service logic to validate the appointment data (e.g., check for doctor availability and time conflicts).
+    //    - The validation is a fast-fail hint; a concurrent booking that wins the race is caught when `AppointmentService`
+    //      re-checks overlaps while holding a lock on the doctor's row, and reported with the same 409 response.
     //    - Returns success if booked, or appropriate error messages if the doctor ID is invalid or the slot is already taken.
     @PostMapping("/{token}")
-    public ResponseEntity<Map<String, String>> bookAppointment(@RequestBody Appointment appointment, @PathVariable String token) {
+    public ResponseEntity<Map<String, String>> bookAppointment(@RequestBody Appointment appointment, @PathVariable String token, AuthenticatedPrincipal principal) {
         ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
+        if (tokenValidation.getStatusCode().is2xxSuccessful() && principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
         if (tokenValidation.getStatusCode().is2xxSuccessful()) {
-            int isValid = service.validateAppointment(appointment);
-            if (isValid == 0) {
+            int isValid = service.validateAppointment(appointment, principal);
+            if (isValid == -1) {
                 return ResponseEntity.status(400).body(Map.of("error", "Invalid doctor ID"));
+            } else if (isValid == 0) {
+                return ResponseEntity.status(400).body(Map.of("error", "Invalid appointment time"));
             } else if (isValid == 2) {
                 return ResponseEntity.status(409).body(Map.of("error", "Appointment slot already taken"));
             } else {
-                int result = appointmentService.bookAppointment(appointment);
+                int result = appointmentService.bookAppointment(appointment, principal);
                 if (result == 1) {
                     return ResponseEntity.ok(Map.of("message", "Appointment booked successfully"));
+                } else if (result == -1) {
+                    return ResponseEntity.status(409).body(Map.of("error", "Appointment slot already taken"));
                 } else {
                     return ResponseEntity.status(500).body(Map.of("error", "Failed to book appointment"));
                 }
@@ -78,6 +143,40 @@ public class AppointmentController {
             return tokenValidation;
         }
     }
+    // **Define the `holdSlot` and `releaseHold` Methods**:
+    //    - `POST /appointments/hold/{token}` reserves a slot for the patient for `slot-hold.ttl-seconds` while they confirm.
+    //    - `DELETE /appointments/hold/{holdId}/{token}` gives the slot back early.
+    //    - Both validate the token for the `"patient"` role; contention between patients resolves in memory.
+    @PostMapping("/hold/{token:.+}")
+    public ResponseEntity<Map<String, Object>> holdSlot(@RequestBody SlotHoldRequest request, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        return appointmentService.holdSlot(request, principal);
+    }
+
+    @DeleteMapping("/hold/{holdId}/{token:.+}")
+    public ResponseEntity<Map<String, String>> releaseHold(@PathVariable String holdId, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
+        if (tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return appointmentService.releaseHold(holdId, principal);
+        } else {
+            return tokenValidation;
+        }
+    }
+    // **Define the `bookAppointments` Method**:
+    //    - Handles HTTP POST requests booking several appointments (e.g. a weekly series) with one doctor in one call.
+    //    - Validates the token for the `"patient"` role; the appointments are booked for the calling patient.
+    //    - Always answers with a per-slot result list, so the client sees which slots were booked and which conflicted.
+    @PostMapping("/batch/{token:.+}")
+    public ResponseEntity<Map<String, Object>> bookAppointments(@RequestBody AppointmentSeriesRequest request, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        return appointmentService.bookAppointments(request, principal);
+    }
     // 5. Define the `updateAppointment` Method:
     //    - Handles HTTP PUT requests to modify an existing appointment.
     //    - Accepts a validated `Appointment` object and a token as input.
@@ -85,11 +184,14 @@ public class AppointmentController {
     //    - Delegates the update logic to the `AppointmentService`.
     //    - Returns an appropriate success or failure response based on the update result.
     @PutMapping("/update/{token}")
-    public ResponseEntity<Map<String, String>> updateAppointment(@RequestBody Appointment appointment, @PathVariable String token) {
+    public ResponseEntity<Map<String, String>> updateAppointment(@RequestBody Appointment appointment, @PathVariable String token, AuthenticatedPrincipal principal) {
         ResponseEntity<Map<String, String>> tokenValidationPatient = service.validateToken(token, "patient");
         ResponseEntity<Map<String, String>> tokenValidationDoctor = service.validateToken(token, "doctor");
         if (tokenValidationPatient.getStatusCode().is2xxSuccessful() || tokenValidationDoctor.getStatusCode().is2xxSuccessful()) {
-            return appointmentService.updateAppointment(appointment);
+            if (principal == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+            }
+            return appointmentService.updateAppointment(appointment, principal);
         } else {
             // Return whichever validation failed (patient by default)
             return tokenValidationPatient;
@@ -101,10 +203,10 @@ public class AppointmentController {
     //    - Validates the token for `"patient"` role to ensure the user is authorized to cancel the appointment.
     //    - Calls `AppointmentService` to handle the cancellation process and returns the result.
     @DeleteMapping("/cancel/{id}/{token:.+}")
-    public ResponseEntity<Map<String, String>> cancelAppointment(@PathVariable Long id, @PathVariable String token) {
+    public ResponseEntity<Map<String, String>> cancelAppointment(@PathVariable Long id, @PathVariable String token, AuthenticatedPrincipal principal) {
         ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
         if (tokenValidation.getStatusCode().is2xxSuccessful()) {
-            return appointmentService.cancelAppointment(id, token);
+            return appointmentService.cancelAppointment(id, principal);
         } else {
             return tokenValidation;
         }
@@ -0,0 +1,25 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.models.Appointment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class DataConflict {
+
+    // Writes that lose a race on a unique key (e.g. two appointments moved into the same slot) surface at commit time;
+    // report them as 409 conflicts rather than generic server errors.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        if (message != null && message.contains(Appointment.DOCTOR_SLOT_CONSTRAINT)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Appointment slot already taken"));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "The request conflicts with existing data"));
+    }
+}
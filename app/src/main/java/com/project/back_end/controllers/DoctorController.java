@@ -2,6 +2,8 @@ package com.project.back_end.controllers;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,12 +11,28 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMethod;
 import com.project.back_end.services.AppService;
+import com.project.back_end.services.DoctorDirectory;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.LoginPipeline;
+import com.project.back_end.services.ScheduleService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.DoctorCursor;
+import com.project.back_end.DTO.DoctorPage;
+import com.project.back_end.DTO.ScheduleExceptionRequest;
+import com.project.back_end.DTO.ScheduleRange;
 
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to define it as a REST controller that serves JSON responses.
@@ -28,9 +46,22 @@ public class DoctorController {
     //    - Inject the shared `Service` class for general-purpose features like token validation and filtering.
     private final DoctorService doctorService;
     private final AppService service;
-    public DoctorController(DoctorService doctorService, AppService service) {
+    private final LoginPipeline loginPipeline;
+    private final ScheduleService scheduleService;
+    private final DoctorDirectory doctorDirectory;
+    private static final int MAX_AVAILABILITY_DOCTORS = 50;
+    private static final int MAX_AVAILABILITY_DAYS = 30;
+    private static final int MAX_EARLIEST_SLOTS = 50;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+    public DoctorController(DoctorService doctorService, AppService service, LoginPipeline loginPipeline, ScheduleService scheduleService, DoctorDirectory doctorDirectory) {
         this.doctorService = doctorService;
         this.service = service;
+        this.loginPipeline = loginPipeline;
+        this.scheduleService = scheduleService;
+        this.doctorDirectory = doctorDirectory;
     }
     // 3. Define the `getDoctorAvailability` Method:
     //    - Handles HTTP GET requests to check a specific doctor’s availability on a given date.
@@ -50,12 +81,72 @@ public class DoctorController {
             return new ResponseEntity<>(errorBody, tokenValidation.getStatusCode());
         }
     }
+    // Define the `getDoctorAvailabilityRange` Method:
+    //    - Handles HTTP GET requests for the availability of several doctors over a span of days (e.g. a week view).
+    //    - Takes the doctor ids and the inclusive `from`/`to` dates as request parameters.
+    //    - Returns free slots grouped by doctor id and then by date, computed with a single booked-slot query.
+    //    - The number of doctors and the span are capped to keep the response bounded.
+    @GetMapping("/availability/range/{user}/{token:.+}")
+    public ResponseEntity<Map<String, Object>> getDoctorAvailabilityRange(@PathVariable String user, @PathVariable String token,
+            @RequestParam Set<Long> doctorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, user);
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new java.util.HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        if (to.isBefore(from) || from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to) || doctorIds.isEmpty() || doctorIds.size() > MAX_AVAILABILITY_DOCTORS) {
+            return ResponseEntity.status(400).body(Map.of("error", "Request up to " + MAX_AVAILABILITY_DOCTORS
+                    + " doctors and a span of at most " + (MAX_AVAILABILITY_DAYS + 1) + " days"));
+        }
+        return ResponseEntity.ok(Map.of("availability", doctorService.getDoctorAvailability(doctorIds, from, to)));
+    }
+    // Define the `getEarliestSlots` Method:
+    //    - Handles HTTP GET requests for the earliest free slots across all doctors of a specialty.
+    //    - Optional request parameters: `time` (AM/PM), the `from`/`to` date window (default: the next two weeks) and `limit`.
+    //    - Returns the slots in chronological order, so one request replaces browsing doctors and dates one by one.
+    @GetMapping("/earliest/{user}/{token:.+}")
+    public ResponseEntity<Map<String, Object>> getEarliestSlots(@PathVariable String user, @PathVariable String token,
+            @RequestParam String specialty,
+            @RequestParam(required = false) String time,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, user);
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new java.util.HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(13);
+        if (end.isBefore(start) || start.plusDays(MAX_AVAILABILITY_DAYS).isBefore(end) || limit < 1 || limit > MAX_EARLIEST_SLOTS) {
+            return ResponseEntity.status(400).body(Map.of("error", "Request up to " + MAX_EARLIEST_SLOTS
+                    + " slots within a span of at most " + (MAX_AVAILABILITY_DAYS + 1) + " days"));
+        }
+        return ResponseEntity.ok(Map.of("slots", doctorService.findEarliestSlots(specialty, normalize(time), start, end, limit)));
+    }
     // 4. Define the `getDoctor` Method:
     //    - Handles HTTP GET requests to retrieve a list of all doctors.
     //    - Returns the list within a response map under the key `"doctors"` with HTTP 200 OK status.
+    //    - The full list is served from the `DoctorDirectory` as pre-encoded JSON with a strong ETag; a request whose
+    //      `If-None-Match` carries the current ETag gets `304 Not Modified` with no body.
+    //    - With `limit` and/or `after`, returns one keyset page of slim doctor summaries instead (see `page`).
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getDoctor() {
-        return ResponseEntity.ok(Map.of("doctors", doctorService.getDoctors()));
+    public ResponseEntity<?> getDoctor(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after,
+        WebRequest request) {
+        if (limit != null || after != null) {
+            return page(null, null, null, after, limit);
+        }
+        DoctorDirectory.Encoded directory = doctorDirectory.current(() -> Map.of("doctors", doctorService.getDoctors()));
+        if (request.checkNotModified(directory.etag())) {
+            return null; // 304 with the ETag header, already written by checkNotModified
+        }
+        return ResponseEntity.ok()
+                .eTag(directory.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(directory.body());
     }
     // 5. Define the `saveDoctor` Method:
     //    - Handles HTTP POST requests to register a new doctor.
@@ -83,9 +174,10 @@ public class DoctorController {
     //    - Handles HTTP POST requests for doctor login.
     //    - Accepts a validated `Login` DTO containing credentials.
     //    - Delegates authentication to the `DoctorService` and returns login status and token information.
+    //    - The login runs on the bounded `LoginPipeline` executor so password hashing does not hold a request thread.
     @RequestMapping(value = "/login", method = RequestMethod.POST)
-    public ResponseEntity<Map<String, String>> doctorLogin(@RequestBody Login login) {
-        return doctorService.validateDoctor(login);
+    public CompletableFuture<ResponseEntity<Map<String, String>>> doctorLogin(@RequestBody Login login) {
+        return loginPipeline.submit(() -> doctorService.validateDoctor(login), error -> Map.of("message", error));
     }
     // 7. Define the `updateDoctor` Method:
     //    - Handles HTTP PUT requests to update an existing doctor's information.
@@ -131,17 +223,64 @@ public class DoctorController {
         }
     }
 
+    // Define the schedule Methods:
+    //    - Let a doctor manage their own schedule; the token must belong to a `"doctor"`.
+    //    - `GET /schedule/{token}` returns the weekly blocks and the date-specific exceptions.
+    //    - `PUT /schedule/{token}` replaces the weekly blocks, e.g. `[{"dayOfWeek":"MONDAY","start":"09:00","end":"12:00"}]`.
+    //    - `POST /schedule/exceptions/{token}` adds time off or an extra clinic; `DELETE /schedule/exceptions/{id}/{token}` removes one.
+    @GetMapping("/schedule/{token:.+}")
+    public ResponseEntity<Map<String, Object>> getSchedule(@PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "doctor");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        return scheduleService.getSchedule(principal);
+    }
+
+    @PutMapping("/schedule/{token:.+}")
+    public ResponseEntity<Map<String, String>> updateSchedule(@RequestBody List<ScheduleRange> weekly, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "doctor");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return tokenValidation;
+        }
+        return scheduleService.updateWeekly(weekly, principal);
+    }
+
+    @PostMapping("/schedule/exceptions/{token:.+}")
+    public ResponseEntity<Map<String, Object>> addScheduleException(@RequestBody ScheduleExceptionRequest request, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "doctor");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return new ResponseEntity<>(new HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
+        }
+        return scheduleService.addException(request, principal);
+    }
+
+    @DeleteMapping("/schedule/exceptions/{exceptionId}/{token:.+}")
+    public ResponseEntity<Map<String, String>> removeScheduleException(@PathVariable Long exceptionId, @PathVariable String token, AuthenticatedPrincipal principal) {
+        ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "doctor");
+        if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
+            return tokenValidation;
+        }
+        return scheduleService.removeException(exceptionId, principal);
+    }
+
     // 9. Define the `filter` Method:
     //    - Handles HTTP GET requests to filter doctors based on optional criteria: name, time, and specialty.
     //    - Accepts these criteria as request parameters.
     //    - Normalizes input values to handle null, blank, "null", or "undefined" strings.
     //    - Delegates filtering logic to the shared `AppService` and returns the filtered list of doctors.
+    //    - With `limit` and/or `after`, returns one keyset page of slim doctor summaries instead (see `page`).
     @RequestMapping("/filter")
     public ResponseEntity<Map<String, Object>> filter(
         @RequestParam(required = false) String name,
         @RequestParam(required = false) String time,
-        @RequestParam(required = false) String speciality) {
+        @RequestParam(required = false) String speciality,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after) {
 
+        if (limit != null || after != null) {
+            return page(normalize(name), normalize(speciality), normalize(time), normalize(after), limit);
+        }
         return ResponseEntity.ok(
             Map.of("doctors", service.filterDoctor(
                     normalize(name),
@@ -151,6 +290,39 @@ public class DoctorController {
 
     }
 
+    // 10. Define the `autocomplete` Method:
+    //    - Handles HTTP GET requests for search-as-you-type suggestions, e.g. `/doctor/autocomplete?prefix=car&limit=5`.
+    //    - Returns `{"names": [...], "specialties": [...]}`: up to `limit` (default 8, max 20) of each whose name or any word
+    //      of it starts with `prefix`, served from memory without a database query.
+    @GetMapping("/autocomplete")
+    public ResponseEntity<Object> autocomplete(
+        @RequestParam(required = false) String prefix,
+        @RequestParam(required = false) Integer limit) {
+        int size = limit != null ? limit : DEFAULT_SUGGESTIONS;
+        if (size < 1 || size > MAX_SUGGESTIONS) {
+            return ResponseEntity.status(400).body(Map.of("error", "limit must be between 1 and " + MAX_SUGGESTIONS));
+        }
+        return ResponseEntity.ok(doctorService.suggestDoctors(normalize(prefix), size));
+    }
+
+    // Paginated listing: `{"doctors": [DoctorSummary...], "nextCursor": "..."}`, ordered by name. Pass `nextCursor` back
+    // as `after` for the following page; it is absent on the last page. `limit` defaults to 20 and is capped at 100.
+    private ResponseEntity<Map<String, Object>> page(String name, String specialty, String time, String after, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        DoctorCursor cursor = after != null ? DoctorCursor.decode(after) : null;
+        if (size < 1 || size > MAX_PAGE_SIZE || (after != null && cursor == null)) {
+            return ResponseEntity.status(400).body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE
+                    + ", and after must be a nextCursor from a previous page"));
+        }
+        DoctorPage page = doctorService.getDoctorPage(name, specialty, time, cursor, size);
+        Map<String, Object> body = new HashMap<>();
+        body.put("doctors", page.doctors());
+        if (page.nextCursor() != null) {
+            body.put("nextCursor", page.nextCursor());
+        }
+        return ResponseEntity.ok(body);
+    }
+
     private String normalize(String value) {
         if (value == null ||
             value.isBlank() ||
@@ -5,13 +5,18 @@ import org.springframework.web.bind.annotation.RestController;
 import com.project.back_end.models.Patient;
 import com.project.back_end.services.AppService;
 import com.project.back_end.services.PatientService;
+import com.project.back_end.services.LoginPipeline;
 import org.springframework.http.ResponseEntity;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to define it as a REST API controller for patient-related operations.
@@ -24,21 +29,25 @@ public class PatientController {
     //    - Inject the shared `Service` class for tasks like token validation and login authentication.
     private final PatientService patientService;
     private final AppService service;
-    public PatientController(PatientService patientService, AppService service) {
+    private final LoginPipeline loginPipeline;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    public PatientController(PatientService patientService, AppService service, LoginPipeline loginPipeline) {
         this.patientService = patientService;   
         this.service = service;
+        this.loginPipeline = loginPipeline;
     }
     // 3. Define the `getPatient` Method:
     //    - Handles HTTP GET requests to retrieve patient details using a token.
     //    - Validates the token for the `"patient"` role using the shared service.
     //    - If the token is valid, returns patient information; otherwise, returns an appropriate error message.
     @RequestMapping("/{token}")
-    public ResponseEntity<Map<String, Object>> getPatient(@PathVariable String token) {
+    public ResponseEntity<Map<String, Object>> getPatient(@PathVariable String token, AuthenticatedPrincipal principal) {
         var tokenValidation = service.validateToken(token, "patient");
         if (!tokenValidation.getStatusCode().is2xxSuccessful()) {
             return new ResponseEntity<>(new HashMap<>(tokenValidation.getBody()), tokenValidation.getStatusCode());
         } 
-        var patientResponse = patientService.getPatientDetails(token);
+        var patientResponse = patientService.getPatientDetails(principal);
         return new ResponseEntity<Map<String, Object>>(patientResponse.getBody(), patientResponse.getStatusCode());
     }
     // 4. Define the `createPatient` Method:
@@ -65,20 +74,27 @@ public class PatientController {
     //    - Accepts a `Login` DTO containing email/username and password.
     //    - Delegates authentication to the `validatePatientLogin` method in the shared service.
     //    - Returns a response with a token or an error message depending on login success.
+    //    - The login runs on the bounded `LoginPipeline` executor so password hashing does not hold a request thread.
     @RequestMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Login login) {
-        return service.validatePatientLogin(login);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody Login login) {
+        return loginPipeline.submit(() -> service.validatePatientLogin(login), error -> Map.of("error", error));
     }
     // 6. Define the `getPatientAppointment` Method:
     //    - Handles HTTP GET requests to fetch appointment details for a specific patient.
     //    - Requires the patient ID, token, and user role as path variables.
     //    - Validates the token using the shared service.
     //    - If valid, retrieves the patient's appointment data from `PatientService`; otherwise, returns a validation error.
+    //    - With `limit` and/or `after`, returns one keyset page of the history instead (see `page`).
     @GetMapping("/appointments/{id}/{token}")
-    public ResponseEntity<Map<String, Object>> getPatientAppointments(@PathVariable Long id, @PathVariable String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointments(@PathVariable Long id, @PathVariable String token, AuthenticatedPrincipal principal,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after) {
         ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
         if (tokenValidation.getStatusCode().is2xxSuccessful()) {
-            ResponseEntity<Map<String, Object>> appointments = patientService.getPatientAppointment(id, token);
+            if (limit != null || after != null) {
+                return page(id, null, null, after, limit, principal);
+            }
+            ResponseEntity<Map<String, Object>> appointments = patientService.getPatientAppointment(id, principal);
             return new ResponseEntity<>(appointments.getBody(), appointments.getStatusCode());
         } else {
             // Convert Map<String, String> to Map<String, Object> for consistent return type
@@ -91,19 +107,36 @@ public class PatientController {
     //    - Accepts filtering parameters: `condition`, `name`, and a token.
     //    - Token must be valid for a `"patient"` role.
     //    - If valid, delegates filtering logic to the shared service and returns the filtered result.
+    //    - With `limit` and/or `after`, returns one keyset page of the filtered history instead (see `page`).
     @GetMapping("/filter/{condition}/{name}/{token}")
-    public ResponseEntity<Map<String, Object>> filterPatientAppointment(@PathVariable String condition, @PathVariable String name, @PathVariable String token) {
+    public ResponseEntity<Map<String, Object>> filterPatientAppointment(@PathVariable String condition, @PathVariable String name, @PathVariable String token, AuthenticatedPrincipal principal,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after) {
         String normalizedCondition = normalize(condition);
     String normalizedName = normalize(name);
         ResponseEntity<Map<String, String>> tokenValidation = service.validateToken(token, "patient");
         if (tokenValidation.getStatusCode().is2xxSuccessful()) {
-            return service.filterPatient(normalizedCondition, normalizedName, token);
+            if (limit != null || after != null) {
+                return page(principal != null ? principal.id() : null, normalizedCondition, normalizedName, after, limit, principal);
+            }
+            return service.filterPatient(normalizedCondition, normalizedName, principal);
         } else {
             // Convert Map<String, String> to Map<String, Object> for consistent return type
             Map<String, Object> errorBody = new java.util.HashMap<>(tokenValidation.getBody());
             return new ResponseEntity<>(errorBody, tokenValidation.getStatusCode());
         }
     }
+    // Paginated history: `{"appointments": [AppointmentDTO...], "nextCursor": "..."}`, oldest first. Pass `nextCursor` back
+    // as `after` for the following page; it is absent on the last page. `limit` defaults to 20 and is capped at 100.
+    private ResponseEntity<Map<String, Object>> page(Long patientId, String condition, String name, String after, Integer limit, AuthenticatedPrincipal principal) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        AppointmentCursor cursor = after != null ? AppointmentCursor.decode(after) : null;
+        if (size < 1 || size > MAX_PAGE_SIZE || (after != null && cursor == null)) {
+            return ResponseEntity.status(400).body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE
+                    + ", and after must be a nextCursor from a previous page"));
+        }
+        return patientService.getAppointmentPage(patientId, condition, name, cursor, size, principal);
+    }
     private String normalize(String value) {
         return (value == null || value.isBlank() || "all".equalsIgnoreCase(value)) ? null : value;
     }
@@ -0,0 +1,30 @@
+package com.project.back_end.controllers;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.project.back_end.services.AppService;
+import org.springframework.http.ResponseEntity;
+import java.util.Map;
+
+// 1. Set Up the Controller Class:
+//    - Annotate the class with `@RestController` to define it as a REST API controller.
+//    - Use `@RequestMapping("${api.path}session")` to group session endpoints shared by all roles (admin, doctor, patient).
+@RestController
+@RequestMapping("${api.path}session")
+public class SessionController {
+    // 2. Autowire Dependencies:
+    //    - Inject the shared `Service` class, which revokes tokens.
+    private final AppService service;
+    public SessionController(AppService service) {
+        this.service = service;
+    }
+    // 3. Define the `logout` Method:
+    //    - Handles HTTP DELETE requests to end a session.
+    //    - Revokes the token passed as a path variable so it stops working immediately, for any role.
+    @DeleteMapping("/{token:.+}")
+    public ResponseEntity<Map<String, String>> logout(@PathVariable String token) {
+        return service.logout(token);
+    }
+}
@@ -4,7 +4,11 @@ import java.beans.Transient;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import jakarta.persistence.GenerationType;
@@ -13,19 +17,44 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Appointment.DOCTOR_SLOT_CONSTRAINT, columnNames = {"doctor_id", "appointment_time"}),
+    indexes = {
+        @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time, id"),
+        @Index(name = "idx_appointment_patient_status_time", columnList = "patient_id, status, appointment_time, id"),
+        @Index(name = "idx_appointment_status_time", columnList = "status, appointment_time")
+    })
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+// @Table unique constraint:
+//    - A doctor can own each slot start at most once; the database enforces this, so concurrent bookings of the same
+//      slot cannot both succeed regardless of any check done beforehand.
+// @Table indexes:
+//    - A patient's history is paged in (appointment_time, id) order, with or without a status filter; each index matches
+//      one of those orders, so a page is a single index range scan instead of a sort over the patient's whole history.
+//    - (status, appointment_time) lets `AppointmentStatusEngine` find elapsed scheduled appointments without a table scan.
 public class Appointment {
+  public static final String DOCTOR_SLOT_CONSTRAINT = "uk_appointment_doctor_slot";
+  public static final String ID_SEQUENCE = "appointment_seq";
+  public static final int ID_ALLOCATION_SIZE = 50;
+  public static final int DEFAULT_DURATION_MINUTES = 60;
+  public static final int MAX_DURATION_MINUTES = 240;
+  public static final int DURATION_STEP_MINUTES = 15;
+  public static final int STATUS_SCHEDULED = 0;
+  public static final int STATUS_COMPLETED = 1;
+  public static final int STATUS_NO_SHOW = 2;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+  @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
   // 1. 'id' field:
   //    - Type: private Long
   //    - Description:
   //      - Represents the unique identifier for each appointment.
   //      - The @Id annotation marks it as the primary key.
-  //      - The @GeneratedValue(strategy = GenerationType.IDENTITY) annotation auto-generates the ID value when a new record is inserted into the database.
+  //      - The @GeneratedValue(strategy = GenerationType.SEQUENCE) annotation takes ids from a pooled sequence, `ID_ALLOCATION_SIZE` at a time.
+  //      - Unlike IDENTITY, the id is known before the INSERT, so Hibernate can send many inserts as one JDBC batch.
 
   @ManyToOne
   @NotNull
@@ -66,16 +95,25 @@ public class Appointment {
   //        - 1 means the appointment has been completed.
   //        - 2 means the patient did not show up.
   //      - The @NotNull annotation ensures that the status field is not null.
+  //      - `AppointmentStatusEngine` moves scheduled appointments whose time has passed to completed in the background.
+
+  private Integer durationMinutes;
+  // 5a. 'durationMinutes' field:
+  //    - Type: private Integer
+  //    - Description:
+  //      - How long the appointment lasts, in multiples of `DURATION_STEP_MINUTES` up to `MAX_DURATION_MINUTES`.
+  //      - Null (bookings made before durations existed, or requests that omit it) means `DEFAULT_DURATION_MINUTES`.
+  //      - Bookings of a doctor may not overlap; see `BookedIntervals`.
 
   @Transient
   public LocalDateTime getEndTime() {
-      return appointmentTime.plusHours(1);
+      return appointmentTime.plusMinutes(getDurationMinutes());
   }
   // 6. 'getEndTime' method:
   //    - Type: private LocalDateTime
   //    - Description:
   //      - This method is a transient field (not persisted in the database).
-  //      - It calculates the end time of the appointment by adding one hour to the start time (appointmentTime).
+  //      - It calculates the end time of the appointment by adding its duration to the start time (appointmentTime).
   //      - It is used to get an estimated appointment end time for display purposes.
 
   @Transient
@@ -130,6 +168,17 @@ public class Appointment {
       this.appointmentTime = appointmentTime;
   }
 
+  public int getDurationMinutes() {
+      return durationMinutes == null ? DEFAULT_DURATION_MINUTES : durationMinutes;
+  }
+  public void setDurationMinutes(Integer durationMinutes) {
+      this.durationMinutes = durationMinutes;
+  }
+
+  public static boolean isValidDuration(int minutes) {
+      return minutes > 0 && minutes <= MAX_DURATION_MINUTES && minutes % DURATION_STEP_MINUTES == 0;
+  }
+
   public int getStatus() {
       return status;
   }
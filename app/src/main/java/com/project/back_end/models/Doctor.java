@@ -1,22 +1,26 @@
 package com.project.back_end.models;
 
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import jakarta.persistence.GenerationType;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Pattern;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_doctor_name", columnList = "name, id"))
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+//    - The (name, id) index serves the keyset-paginated doctor listing, which is ordered by name and id.
 public class Doctor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -81,14 +85,17 @@ public class Doctor {
     //      - The @NotNull annotation ensures that a phone number must be provided.
     //      - The @Pattern(regexp = "^[0-9]{11}$") annotation validates that the phone number must be exactly 11 digits long.
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> availableTimes;
     // 7. 'availableTimes' field:
     //    - Type: private List<String>
     //    - Description:
-    //      - Represents the available times for the doctor in a list of time slots.
-    //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
-    //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
+    //      - The doctor's weekly slots as strings (e.g., "09:00-10:00", "10:00-11:00"), kept for API compatibility.
+    //      - Not persisted: the schedule lives in `WeeklyAvailability` and `ScheduleException` rows, loaded on demand, so
+    //        loading a doctor (e.g. for login) no longer reads a second table.
+    //      - Filled by `DoctorService` for doctor listings; omitted from JSON when not filled (e.g. inside appointments).
+    //      - When sent on create/update, it replaces the weekly schedule with these slots on every weekday.
 
     public Long getId() {
         return id;
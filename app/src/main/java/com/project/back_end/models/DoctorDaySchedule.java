@@ -0,0 +1,90 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Lob;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+// @Entity annotation:
+//    - Read model of one doctor's appointments on one date, as the doctor dashboard renders them.
+//    - Derived entirely from the `Appointment` table and maintained by `DailyScheduleReadModel`; it can be dropped and
+//      regenerated at any time (`--rebuild-daily-schedules`).
+public class DoctorDaySchedule {
+    @EmbeddedId
+    private Key id;
+    // 1. 'id' field:
+    //    - Type: private Key
+    //    - Description:
+    //      - The (doctorId, scheduleDate) primary key, so a dashboard read is a single primary-key lookup.
+
+    @Lob
+    @NotNull
+    @Column(columnDefinition = "LONGTEXT")
+    private String appointments;
+    // 2. 'appointments' field:
+    //    - Type: private String
+    //    - Description:
+    //      - JSON array of `DashboardAppointment`, ordered by appointment time; "[]" for a day without appointments.
+
+    public DoctorDaySchedule() {
+    }
+
+    public DoctorDaySchedule(Long doctorId, LocalDate scheduleDate, String appointments) {
+        this.id = new Key(doctorId, scheduleDate);
+        this.appointments = appointments;
+    }
+
+    public Key getId() {
+        return id;
+    }
+
+    public void setId(Key id) {
+        this.id = id;
+    }
+
+    public String getAppointments() {
+        return appointments;
+    }
+
+    public void setAppointments(String appointments) {
+        this.appointments = appointments;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        private Long doctorId;
+        private LocalDate scheduleDate;
+
+        public Key() {
+        }
+
+        public Key(Long doctorId, LocalDate scheduleDate) {
+            this.doctorId = doctorId;
+            this.scheduleDate = scheduleDate;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDate getScheduleDate() {
+            return scheduleDate;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Objects.equals(doctorId, key.doctorId) && Objects.equals(scheduleDate, key.scheduleDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, scheduleDate);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.back_end.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_schedule_exception_doctor_date", columnList = "doctor_id, exception_date"))
+// @Entity annotation:
+//    - A date-specific change to a doctor's weekly schedule: time off (vacation, training) or an extra clinic.
+//    - Time off removes every slot overlapping [startTime, endTime) on that date; an extra clinic adds slots like a weekly block.
+public class ScheduleException {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // 1. 'id' field:
+    //    - Type: private Long
+    //    - Description:
+    //      - Primary key of the exception, generated by the database.
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @NotNull
+    @JsonIgnore
+    private Doctor doctor;
+    // 2. 'doctor' field:
+    //    - Type: private Doctor
+    //    - Description:
+    //      - The doctor whose schedule changes. Lazy, since schedule reads only need the doctor's id.
+
+    @NotNull
+    private LocalDate exceptionDate;
+    // 3. 'exceptionDate' field:
+    //    - Type: private LocalDate
+    //    - Description:
+    //      - The day the exception applies to.
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+    // 4. 'startTime' and 'endTime' fields:
+    //    - Type: private LocalTime
+    //    - Description:
+    //      - The affected hours; both null means the whole day (only meaningful for time off).
+
+    private boolean available;
+    // 5. 'available' field:
+    //    - Type: private boolean
+    //    - Description:
+    //      - true for an extra clinic (adds slots), false for time off (removes slots).
+
+    public ScheduleException() {
+    }
+
+    public ScheduleException(Doctor doctor, LocalDate exceptionDate, LocalTime startTime, LocalTime endTime, boolean available) {
+        this.doctor = doctor;
+        this.exceptionDate = exceptionDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.available = available;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+    public void setDoctor(Doctor doctor) {
+        this.doctor = doctor;
+    }
+
+    public LocalDate getExceptionDate() {
+        return exceptionDate;
+    }
+    public void setExceptionDate(LocalDate exceptionDate) {
+        this.exceptionDate = exceptionDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
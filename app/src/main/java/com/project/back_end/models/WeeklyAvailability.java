@@ -0,0 +1,137 @@
+package com.project.back_end.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.back_end.services.DailySlots;
+import com.project.back_end.services.WeeklySchedule;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_weekly_availability_doctor", columnList = "doctor_id"))
+// @Entity annotation:
+//    - One recurring block of working hours in a doctor's weekly schedule, e.g. every MONDAY from 09:00 to 12:00.
+//    - The block is split into appointment-length slots (see `WeeklySchedule`), so 09:00-12:00 offers 09:00, 10:00 and 11:00.
+public class WeeklyAvailability {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // 1. 'id' field:
+    //    - Type: private Long
+    //    - Description:
+    //      - Primary key of the schedule block, generated by the database.
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @NotNull
+    @JsonIgnore
+    private Doctor doctor;
+    // 2. 'doctor' field:
+    //    - Type: private Doctor
+    //    - Description:
+    //      - The doctor this block belongs to. Lazy, since schedule reads only need the doctor's id.
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private DayOfWeek dayOfWeek;
+    // 3. 'dayOfWeek' field:
+    //    - Type: private DayOfWeek
+    //    - Description:
+    //      - The weekday the block repeats on, stored by name (e.g. "MONDAY").
+
+    @NotNull
+    private LocalTime startTime;
+
+    @NotNull
+    private LocalTime endTime;
+    // 4. 'startTime' and 'endTime' fields:
+    //    - Type: private LocalTime
+    //    - Description:
+    //      - The working hours of the block; the last slot must end by `endTime`.
+
+    @JsonIgnore
+    private Boolean offersAm;
+
+    @JsonIgnore
+    private Boolean offersPm;
+    // 5. 'offersAm' and 'offersPm' fields:
+    //    - Type: private Boolean
+    //    - Description:
+    //      - Whether the block offers at least one slot starting before noon / from noon on, derived from the hours
+    //        whenever they change. Stored so the doctor filter can match "AM"/"PM" in SQL instead of in Java.
+    //      - Null only on rows written before these columns existed, until `DoctorScheduleMigration` fills them in.
+
+    public WeeklyAvailability() {
+    }
+
+    public WeeklyAvailability(Doctor doctor, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.doctor = doctor;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        updateDayparts();
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+    public void setDoctor(Doctor doctor) {
+        this.doctor = doctor;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+        updateDayparts();
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+        updateDayparts();
+    }
+
+    public Boolean getOffersAm() {
+        return offersAm;
+    }
+
+    public Boolean getOffersPm() {
+        return offersPm;
+    }
+
+    private void updateDayparts() {
+        if (startTime == null) {
+            return;
+        }
+        DailySlots slots = WeeklySchedule.slotsWithin(startTime, endTime);
+        this.offersAm = slots.intersects(DailySlots.AM);
+        this.offersPm = slots.intersects(DailySlots.PM);
+    }
+}
@@ -3,6 +3,9 @@ package com.project.back_end.repo;
 import com.project.back_end.models.Admin;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import jakarta.transaction.Transactional;
 
 // Extend JpaRepository:
 //  - The repository extends JpaRepository<Admin, Long>, which gives it basic CRUD functionality.
@@ -15,6 +18,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 //  - Spring Data JPA automatically implements the repository, providing the necessary CRUD functionality.
 public interface AdminRepository extends JpaRepository<Admin, Long> {
     public Admin findByUsername(String username);
+    @Modifying
+    @Transactional
+    @Query("UPDATE Admin a SET a.password = :password WHERE a.id = :id")
+    public void updatePassword(Long id, String password);
 }
 
 
@@ -0,0 +1,23 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.models.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Custom fragment of `AppointmentRepository` for the paginated patient history (implemented in `AppointmentHistoryQueriesImpl`).
+public interface AppointmentHistoryQueries {
+   public List<Appointment> findPatientHistory(Long patientId, Integer status, LocalDateTime startsBefore, LocalDateTime startsFrom,
+           Collection<Long> doctorIds, AppointmentCursor after, int limit);
+   //    - **findPatientHistory**:
+   //      - Retrieves up to `limit` appointments of the patient, optionally only those with the given status, starting
+   //        before `startsBefore` / at or after `startsFrom`, and/or with one of the given doctors (null for any), ordered
+   //        by appointment time and id, starting after the cursor (null for the first page). Doctor and patient are
+   //        fetched in the same query.
+   //      - Uses keyset pagination, so deep pages cost the same as the first.
+   //      - Return type: List<Appointment>
+   //      - Parameters: Long patientId, Integer status, LocalDateTime startsBefore, LocalDateTime startsFrom,
+   //        Collection<Long> doctorIds, AppointmentCursor after, int limit
+}
@@ -0,0 +1,58 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.models.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Builds each page as one SELECT driven by the (patient_id[, status], appointment_time, id) indexes of `Appointment`:
+// the keyset predicate and the ORDER BY both follow the index, so MySQL reads a single range of it and stops after
+// `limit` entries, joining doctor and patient by primary key for just those rows.
+public class AppointmentHistoryQueriesImpl implements AppointmentHistoryQueries {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Appointment> findPatientHistory(Long patientId, Integer status, LocalDateTime startsBefore, LocalDateTime startsFrom,
+            Collection<Long> doctorIds, AppointmentCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Appointment> query = cb.createQuery(Appointment.class);
+        Root<Appointment> appointment = query.from(Appointment.class);
+        appointment.fetch("doctor", JoinType.LEFT);
+        appointment.fetch("patient", JoinType.LEFT);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(appointment.get("patient").get("id"), patientId));
+        if (status != null) {
+            where.add(cb.equal(appointment.get("status"), status));
+        }
+        if (startsBefore != null) {
+            where.add(cb.lessThan(appointment.get("appointmentTime"), startsBefore));
+        }
+        if (startsFrom != null) {
+            where.add(cb.greaterThanOrEqualTo(appointment.get("appointmentTime"), startsFrom));
+        }
+        if (doctorIds != null) {
+            where.add(appointment.get("doctor").get("id").in(doctorIds));
+        }
+        if (after != null) {
+            Expression<LocalDateTime> time = appointment.get("appointmentTime");
+            where.add(cb.or(cb.greaterThan(time, after.appointmentTime()),
+                    cb.and(cb.equal(time, after.appointmentTime()), cb.greaterThan(appointment.get("id"), after.id()))));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(appointment.get("appointmentTime")), cb.asc(appointment.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,12 +1,20 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.AppointmentExportRow;
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.DTO.DashboardAppointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import jakarta.transaction.Transactional;
 
 // 1. Extend JpaRepository:
@@ -17,7 +25,7 @@ import jakarta.transaction.Transactional;
 // @Repository annotation:
 //  - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //  - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentHistoryQueries {
    // 2. Custom Query Methods:
    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p " +
        "WHERE d.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%'))")
@@ -25,7 +33,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d WHERE d.id = :doctorId")
    public List<Appointment> findByDoctorId(Long doctorId);
    //    - **findByDoctorId**:
-   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH d.availableTimes WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
+   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
    public List<Appointment> findByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
    //    - **findByDoctorIdAndAppointmentTimeBetween**:
    //      - This method retrieves a list of appointments for a specific doctor within a given time range.
@@ -33,6 +41,43 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
    //      - Return type: List<Appointment>
    //      - Parameters: Long doctorId, LocalDateTime start, LocalDateTime end
    //      - It uses a LEFT JOIN to fetch the doctor’s available times along with the appointments.
+   @Query("SELECT new com.project.back_end.DTO.BookedSlot(a.doctor.id, a.appointmentTime, a.durationMinutes) FROM Appointment a " +
+       "WHERE a.doctor.id IN :doctorIds AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+   public List<BookedSlot> findBookedSlots(Collection<Long> doctorIds, LocalDateTime start, LocalDateTime end);
+   //    - **findBookedSlots**:
+   //      - This method retrieves only (doctorId, appointmentTime, durationMinutes) rows for several doctors whose appointments start within a time range.
+   //      - No entities are materialized and nothing is join-fetched, so the result is one row per booked appointment.
+   //      - Return type: List<BookedSlot>
+   //      - Parameters: Collection<Long> doctorIds, LocalDateTime start (inclusive), LocalDateTime end (exclusive)
+   @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+   @Query("SELECT new com.project.back_end.DTO.AppointmentExportRow(a.id, a.doctor.id, a.appointmentTime, a.durationMinutes, a.status, " +
+       "p.id, p.name, p.email, p.phone) FROM Appointment a LEFT JOIN a.patient p " +
+       "WHERE a.doctor.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end ORDER BY a.appointmentTime, a.id")
+   public Stream<AppointmentExportRow> streamForExport(Long doctorId, LocalDateTime start, LocalDateTime end);
+   //    - **streamForExport**:
+   //      - This method streams a doctor's appointments starting within a time range, oldest first, as export rows.
+   //      - The fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream the result set row by row instead of
+   //        buffering it; rows are projected, so nothing accumulates in the persistence context either.
+   //      - Must be consumed inside a transaction and closed; no other statement may run on the connection meanwhile.
+   //      - Return type: Stream<AppointmentExportRow>
+   //      - Parameters: Long doctorId, LocalDateTime start (inclusive), LocalDateTime end (exclusive)
+   @Query("SELECT new com.project.back_end.DTO.DashboardAppointment(a.id, a.appointmentTime, a.durationMinutes, a.doctor.id, " +
+       "p.id, p.name, p.phone, p.email) FROM Appointment a LEFT JOIN a.patient p " +
+       "WHERE a.doctor.id = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end ORDER BY a.appointmentTime, a.id")
+   public List<DashboardAppointment> findDashboardAppointments(Long doctorId, LocalDateTime start, LocalDateTime end);
+   //    - **findDashboardAppointments**:
+   //      - This method retrieves a doctor's appointments starting within a time range, in time order, projected to the
+   //        rows of the doctor dashboard (see `DailyScheduleReadModel`).
+   //      - Return type: List<DashboardAppointment>
+   //      - Parameters: Long doctorId, LocalDateTime start (inclusive), LocalDateTime end (exclusive)
+   @Query("SELECT new com.project.back_end.DTO.DashboardAppointment(a.id, a.appointmentTime, a.durationMinutes, a.doctor.id, " +
+       "p.id, p.name, p.phone, p.email) FROM Appointment a LEFT JOIN a.patient p " +
+       "WHERE a.doctor.id = :doctorId ORDER BY a.appointmentTime, a.id")
+   public List<DashboardAppointment> findDashboardAppointmentsByDoctorId(Long doctorId);
+   //    - **findDashboardAppointmentsByDoctorId**:
+   //      - Like `findDashboardAppointments`, for all of the doctor's appointments (used to rebuild the read model).
+   //      - Return type: List<DashboardAppointment>
+   //      - Parameters: Long doctorId
    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE d.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND a.appointmentTime BETWEEN :start AND :end")
    public List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(Long doctorId, String patientName, LocalDateTime start, LocalDateTime end);
    //    - **findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween**:
@@ -73,6 +118,42 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
    //      - This method retrieves appointments based on a doctor’s name (using a LIKE query), patient’s ID, and a specific appointment status.
    //      - Return type: List<Appointment>
    //      - Parameters: String doctorName, Long patientId, int status
+   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE p.id = :patientId AND a.appointmentTime < :time ORDER BY a.appointmentTime ASC")
+   public List<Appointment> findByPatientIdAndAppointmentTimeBefore(Long patientId, LocalDateTime time);
+   //    - **findByPatientIdAndAppointmentTimeBefore**:
+   //      - This method retrieves a patient's appointments starting before the given time (the "past" ones when passed
+   //        the current time), ordered by the appointment time, without depending on the stored status.
+   //      - Return type: List<Appointment>
+   //      - Parameters: Long patientId, LocalDateTime time (exclusive)
+   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE p.id = :patientId AND a.appointmentTime >= :time ORDER BY a.appointmentTime ASC")
+   public List<Appointment> findByPatientIdAndAppointmentTimeFrom(Long patientId, LocalDateTime time);
+   //    - **findByPatientIdAndAppointmentTimeFrom**:
+   //      - This method retrieves a patient's appointments starting at or after the given time (the "future" ones when
+   //        passed the current time), ordered by the appointment time.
+   //      - Return type: List<Appointment>
+   //      - Parameters: Long patientId, LocalDateTime time (inclusive)
+   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId AND a.appointmentTime < :time")
+   public List<Appointment> filterByDoctorNameAndPatientIdAndAppointmentTimeBefore(String doctorName, Long patientId, LocalDateTime time);
+   //    - **filterByDoctorNameAndPatientIdAndAppointmentTimeBefore**:
+   //      - Like `filterByDoctorNameAndPatientIdAndStatus`, with appointments starting before the given time instead of a status.
+   //      - Return type: List<Appointment>
+   //      - Parameters: String doctorName, Long patientId, LocalDateTime time (exclusive)
+   @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId AND a.appointmentTime >= :time")
+   public List<Appointment> filterByDoctorNameAndPatientIdAndAppointmentTimeFrom(String doctorName, Long patientId, LocalDateTime time);
+   //    - **filterByDoctorNameAndPatientIdAndAppointmentTimeFrom**:
+   //      - Like `filterByDoctorNameAndPatientIdAndStatus`, with appointments starting at or after the given time instead of a status.
+   //      - Return type: List<Appointment>
+   //      - Parameters: String doctorName, Long patientId, LocalDateTime time (inclusive)
+   @Modifying
+   @Query(value = "UPDATE appointment SET status = :to WHERE status = :from AND appointment_time < :cutoff LIMIT :limit", nativeQuery = true)
+   public int transitionStatus(int from, int to, LocalDateTime cutoff, int limit);
+   //    - **transitionStatus**:
+   //      - This method moves at most `limit` appointments with status `from` that started before `cutoff` to status `to`,
+   //        and returns how many it changed. Native because JPQL has no UPDATE ... LIMIT; the (status, appointment_time)
+   //        index bounds the rows it reads, and the limit bounds the rows it locks.
+   //      - Must run inside a transaction; it bypasses the persistence context.
+   //      - Return type: int
+   //      - Parameters: int from, int to, LocalDateTime cutoff (exclusive), int limit
    @Modifying
    @Transactional
    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
@@ -0,0 +1,49 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.DoctorDaySchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface DoctorDayScheduleRepository extends JpaRepository<DoctorDaySchedule, DoctorDaySchedule.Key> {
+   @Modifying
+   @Transactional
+   @Query("DELETE FROM DoctorDaySchedule s WHERE s.id.doctorId = :doctorId")
+   public void deleteAllByDoctorId(Long doctorId);
+   //    - **deleteAllByDoctorId**:
+   //      - Removes every day of a doctor's read model (when the doctor is deleted or their days are rebuilt).
+   //      - Return type: void
+   //      - Parameters: Long doctorId
+   @Modifying
+   @Transactional
+   @Query("DELETE FROM DoctorDaySchedule s WHERE s.id.doctorId NOT IN (SELECT d.id FROM Doctor d)")
+   public int deleteOrphans();
+   //    - **deleteOrphans**:
+   //      - Removes the days of doctors that no longer exist, and returns how many rows it removed.
+   //      - Return type: int
+   @Modifying
+   @Transactional
+   @Query(value = "INSERT IGNORE INTO doctor_day_schedule (doctor_id, schedule_date, appointments) VALUES (:doctorId, :scheduleDate, :appointments)", nativeQuery = true)
+   public int insertIfAbsent(Long doctorId, LocalDate scheduleDate, String appointments);
+   //    - **insertIfAbsent**:
+   //      - Stores a day computed on a read miss unless a row already exists, so it never overwrites a newer recompute.
+   //        Native because JPQL has no INSERT ... IGNORE; returns 1 if the row was inserted, 0 if one was already there.
+   //      - Return type: int
+   //      - Parameters: Long doctorId, LocalDate scheduleDate, String appointments (JSON)
+   @Modifying
+   @Query(value = "INSERT INTO doctor_day_schedule (doctor_id, schedule_date, appointments) VALUES (:doctorId, :scheduleDate, :appointments) " +
+       "ON DUPLICATE KEY UPDATE appointments = VALUES(appointments)", nativeQuery = true)
+   public void upsert(Long doctorId, LocalDate scheduleDate, String appointments);
+   //    - **upsert**:
+   //      - Writes a recomputed day whether or not its row exists yet, in one statement, so it cannot collide with a
+   //        concurrent `insertIfAbsent` the way a find-then-insert would.
+   //      - Must run inside a transaction; it bypasses the persistence context.
+   //      - Return type: void
+   //      - Parameters: Long doctorId, LocalDate scheduleDate, String appointments (JSON)
+}
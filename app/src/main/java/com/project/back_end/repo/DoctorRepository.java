@@ -1,21 +1,29 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import com.project.back_end.DTO.DoctorSearchEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 
 // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Doctor, Long>, which gives it basic CRUD functionality.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
 //    - JpaRepository also includes features like pagination and sorting.
+//    - JpaSpecificationExecutor runs the composable filters built in `DoctorSpecifications` as a single query.
+//    - DoctorSummaryQueries adds the keyset-paginated listing of slim `DoctorSummary` rows.
 @Repository
 // @Repository annotation:
 //  - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //  - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
-public interface DoctorRepository extends JpaRepository<Doctor, Long>{
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor>, DoctorSummaryQueries {
    // 2. Custom Query Methods:
    @Query("SELECT d FROM Doctor d WHERE d.email = :email")
    public Doctor findByEmail(String email);
@@ -23,24 +31,38 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long>{
    //      - This method retrieves a Doctor by their email.
    //      - Return type: Doctor
    //      - Parameters: String email
-   @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
-   public List<Doctor> findByNameLike(String name);
-   //    - **findByNameLike**:
-   //      - This method retrieves a list of Doctors whose name contains the provided search string (case-sensitive).
-   //      - The `CONCAT('%', :name, '%')` is used to create a pattern for partial matching.
-   //      - Return type: List<Doctor>
-   //      - Parameters: String name
-   @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) AND LOWER(d.specialty) = LOWER(:specialty)")
-   public List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
-   //    - **findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase**:
-   //      - This method retrieves a list of Doctors where the name contains the search string (case-insensitive) and the specialty matches exactly (case-insensitive).
-   //      - It combines both fields for a more specific search.
-   //      - Return type: List<Doctor>
-   //      - Parameters: String name, String specialty
    @Query("SELECT d FROM Doctor d WHERE LOWER(d.specialty) = LOWER(:specialty)")
    public List<Doctor> findBySpecialtyIgnoreCase(String specialty);
    //    - **findBySpecialtyIgnoreCase**:
    //      - This method retrieves a list of Doctors with the specified specialty, ignoring case sensitivity.
    //      - Return type: List<Doctor>
    //      - Parameters: String specialty
+   @Query("SELECT new com.project.back_end.DTO.DoctorSearchEntry(d.id, d.name, d.specialty) FROM Doctor d")
+   public List<DoctorSearchEntry> findSearchEntries();
+   //    - **findSearchEntries**:
+   //      - This method retrieves just the id, name and specialty of every doctor, to (re)build the search index.
+   //      - Return type: List<DoctorSearchEntry>
+   //      - Parameters: none
+   @Query("SELECT d.id FROM Doctor d ORDER BY d.id")
+   public List<Long> findAllIds();
+   //    - **findAllIds**:
+   //      - This method retrieves the id of every doctor, in id order.
+   //      - Return type: List<Long>
+   //      - Parameters: none
+   @Lock(LockModeType.PESSIMISTIC_WRITE)
+   @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+   public Doctor lockForBooking(Long id);
+   //    - **lockForBooking**:
+   //      - This method locks the doctor's row (SELECT ... FOR UPDATE) until the calling transaction ends, so bookings of
+   //        one doctor are checked for overlaps and inserted one at a time. Must run inside a transaction.
+   //      - Return type: Doctor (null if the doctor does not exist)
+   //      - Parameters: Long id
+   @Modifying
+   @Transactional
+   @Query("UPDATE Doctor d SET d.password = :password WHERE d.id = :id")
+   public void updatePassword(Long id, String password);
+   //    - **updatePassword**:
+   //      - This method replaces a doctor's stored password (used to migrate logins to a new hash).
+   //      - Return type: void
+   //      - Parameters: Long id, String password
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklyAvailability;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+// Composable filters for `DoctorRepository.findAll(Specification)`, so every combination of name, specialty and
+// time of day is one SQL query instead of one repository method per combination.
+//    - Each factory returns null for a missing criterion; `Specification.where(...).and(...)` skips null parts.
+public final class DoctorSpecifications {
+    private DoctorSpecifications() {
+    }
+
+    // Doctors with one of the given ids (e.g. the matches of the name search index); an empty collection matches nobody.
+    public static Specification<Doctor> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    // Doctors whose specialty equals `specialty`, ignoring case.
+    public static Specification<Doctor> specialtyIs(String specialty) {
+        if (specialty == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("specialty")), specialty.toLowerCase(Locale.ROOT));
+    }
+
+    // Doctors with at least one weekly block offering a slot in the "AM" or "PM" half of the day; any other value
+    // matches nobody. Uses an EXISTS subquery on `weekly_availability` (indexed by doctor).
+    public static Specification<Doctor> availableDuring(String amOrPm) {
+        if (amOrPm == null) {
+            return null;
+        }
+        String flag = "AM".equalsIgnoreCase(amOrPm) ? "offersAm" : "PM".equalsIgnoreCase(amOrPm) ? "offersPm" : null;
+        return (root, query, cb) -> {
+            if (flag == null) {
+                return cb.disjunction();
+            }
+            Subquery<Long> blocks = query.subquery(Long.class);
+            Root<WeeklyAvailability> block = blocks.from(WeeklyAvailability.class);
+            blocks.select(block.get("id"))
+                    .where(cb.equal(block.get("doctor"), root), cb.isTrue(block.get(flag)));
+            return cb.exists(blocks);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.DoctorCursor;
+import com.project.back_end.DTO.DoctorSummary;
+import com.project.back_end.models.Doctor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Custom fragment of `DoctorRepository` for the paginated doctor listing (implemented in `DoctorSummaryQueriesImpl`).
+public interface DoctorSummaryQueries {
+   public List<DoctorSummary> findSummaries(Specification<Doctor> filter, DoctorCursor after, int limit);
+   //    - **findSummaries**:
+   //      - Retrieves up to `limit` doctors matching the filter (null for all), ordered by name and id, starting after
+   //        the cursor (null for the first page). Uses keyset pagination, so deep pages cost the same as the first.
+   //      - Return type: List<DoctorSummary>
+   //      - Parameters: Specification<Doctor> filter, DoctorCursor after, int limit
+}
@@ -0,0 +1,63 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.DoctorCursor;
+import com.project.back_end.DTO.DoctorSummary;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklyAvailability;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds the listing as a constructor projection: one SELECT of the doctor columns plus correlated subqueries on
+// `weekly_availability` (indexed by doctor) for the availability summary, for at most `limit` rows.
+public class DoctorSummaryQueriesImpl implements DoctorSummaryQueries {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DoctorSummary> findSummaries(Specification<Doctor> filter, DoctorCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DoctorSummary> query = cb.createQuery(DoctorSummary.class);
+        Root<Doctor> doctor = query.from(Doctor.class);
+
+        Subquery<Long> workingDays = query.subquery(Long.class);
+        Root<WeeklyAvailability> day = workingDays.from(WeeklyAvailability.class);
+        workingDays.select(cb.countDistinct(day.get("dayOfWeek"))).where(cb.equal(day.get("doctor"), doctor));
+
+        query.select(cb.construct(DoctorSummary.class,
+                doctor.get("id"), doctor.get("name"), doctor.get("specialty"), doctor.get("phone"),
+                workingDays, offers(cb, query, doctor, "offersAm"), offers(cb, query, doctor, "offersPm")));
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter != null) {
+            Predicate matches = filter.toPredicate(doctor, query, cb);
+            if (matches != null) {
+                where.add(matches);
+            }
+        }
+        if (after != null) {
+            Expression<String> name = doctor.get("name");
+            where.add(cb.or(cb.greaterThan(name, after.name()),
+                    cb.and(cb.equal(name, after.name()), cb.greaterThan(doctor.get("id"), after.id()))));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(doctor.get("name")), cb.asc(doctor.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static Expression<Boolean> offers(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Doctor> doctor, String flag) {
+        Subquery<Long> blocks = query.subquery(Long.class);
+        Root<WeeklyAvailability> block = blocks.from(WeeklyAvailability.class);
+        blocks.select(block.get("id")).where(cb.equal(block.get("doctor"), doctor), cb.isTrue(block.get(flag)));
+        return cb.<Boolean>selectCase().when(cb.exists(blocks), true).otherwise(false);
+    }
+}
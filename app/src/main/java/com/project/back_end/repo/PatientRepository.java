@@ -2,8 +2,10 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import jakarta.transaction.Transactional;
 
 // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Patient, Long>, which provides basic CRUD functionality.
@@ -27,5 +29,13 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     //      - This method retrieves a Patient by either their email or phone number, allowing flexibility for the search.
     //      - Return type: Patient
     //      - Parameters: String email, String phone
+    @Modifying
+    @Transactional
+    @Query("UPDATE Patient p SET p.password = :password WHERE p.id = :id")
+    public void updatePassword(Long id, String password);
+    //    - **updatePassword**:
+    //      - This method replaces a patient's stored password (used to migrate logins to a new hash).
+    //      - Return type: void
+    //      - Parameters: Long id, String password
 }
 
@@ -0,0 +1,35 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+   @Query("SELECT e FROM ScheduleException e WHERE e.doctor.id IN :doctorIds")
+   public List<ScheduleException> findByDoctorIds(Collection<Long> doctorIds);
+   //    - **findByDoctorIds**:
+   //      - Retrieves the schedule exceptions of several doctors in one query (the doctor itself is not loaded).
+   //      - Return type: List<ScheduleException>
+   //      - Parameters: Collection<Long> doctorIds
+   @Query("SELECT e FROM ScheduleException e WHERE e.id = :id AND e.doctor.id = :doctorId")
+   public ScheduleException findByIdAndDoctorId(Long id, Long doctorId);
+   //    - **findByIdAndDoctorId**:
+   //      - Retrieves one exception only if it belongs to the given doctor.
+   //      - Return type: ScheduleException
+   //      - Parameters: Long id, Long doctorId
+   @Modifying
+   @Transactional
+   @Query("DELETE FROM ScheduleException e WHERE e.doctor.id = :doctorId")
+   public void deleteAllByDoctorId(Long doctorId);
+   //    - **deleteAllByDoctorId**:
+   //      - Removes all of a doctor's exceptions (when the doctor is deleted).
+   //      - Return type: void
+   //      - Parameters: Long doctorId
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.WeeklyAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface WeeklyAvailabilityRepository extends JpaRepository<WeeklyAvailability, Long> {
+   @Query("SELECT w FROM WeeklyAvailability w WHERE w.doctor.id IN :doctorIds")
+   public List<WeeklyAvailability> findByDoctorIds(Collection<Long> doctorIds);
+   //    - **findByDoctorIds**:
+   //      - Retrieves the weekly blocks of several doctors in one query (the doctor itself is not loaded).
+   //      - Return type: List<WeeklyAvailability>
+   //      - Parameters: Collection<Long> doctorIds
+   @Modifying
+   @Transactional
+   @Query("DELETE FROM WeeklyAvailability w WHERE w.doctor.id = :doctorId")
+   public void deleteAllByDoctorId(Long doctorId);
+   //    - **deleteAllByDoctorId**:
+   //      - Removes a doctor's weekly blocks (when the schedule is replaced or the doctor is deleted).
+   //      - Return type: void
+   //      - Parameters: Long doctorId
+}
@@ -1,10 +1,12 @@
 package com.project.back_end.services;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
@@ -15,9 +17,6 @@ import jakarta.transaction.Transactional;
 
 import com.project.back_end.repo.AppointmentRepository;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import org.springframework.http.ResponseEntity;
 
@@ -36,7 +35,13 @@ public class AppService {
     private final AppointmentRepository appointmentRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
-    public AppService(TokenService tokenService, AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository, AppointmentRepository appointmentRepository, DoctorService doctorService, PatientService patientService) {
+    private final IdentityCache identityCache;
+    private final PasswordService passwordService;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotHoldRegistry slotHolds;
+    private final boolean conflictPrecheck;
+    public AppService(TokenService tokenService, AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository, AppointmentRepository appointmentRepository, DoctorService doctorService, PatientService patientService, IdentityCache identityCache, PasswordService passwordService,
+            AvailabilityIndex availabilityIndex, SlotHoldRegistry slotHolds, @Value("${booking.conflict-precheck:true}") boolean conflictPrecheck) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
@@ -44,12 +49,17 @@ public class AppService {
         this.appointmentRepository = appointmentRepository;
         this.doctorService = doctorService;
         this.patientService = patientService;
+        this.identityCache = identityCache;
+        this.passwordService = passwordService;
+        this.availabilityIndex = availabilityIndex;
+        this.slotHolds = slotHolds;
+        this.conflictPrecheck = conflictPrecheck;
     }
     // 3. **validateToken Method**
     // This method checks if the provided JWT token is valid for a specific user. It uses the TokenService to perform the validation.
+    // For tokens carrying role and principal id claims this is a pure in-memory check with no repository queries.
     // If the token is invalid or expired, it returns a 401 Unauthorized response with an appropriate error message. This ensures security by preventing
     // unauthorized access to protected resources.
-    @Transactional
     public ResponseEntity<Map<String, String>> validateToken(String token, String user) {
         boolean response = tokenService.validateToken(token, user);
         if (!response) {    
@@ -57,10 +67,18 @@ public class AppService {
         }
         return ResponseEntity.ok(Map.of("message", "Token is valid"));
     }
+    // **logout Method**
+    // Revokes the caller's token so it can no longer be used, even though it has not expired yet.
+    public ResponseEntity<Map<String, String>> logout(String token) {
+        if (!tokenService.revokeToken(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
     // 4. **validateAdmin Method**
     // This method validates the login credentials for an admin user.
     // - It first searches the admin repository using the provided username.
-    // - If an admin is found, it checks if the password matches.
+    // - If an admin is found, it checks the password against the stored hash (rehashing legacy plaintext or outdated hashes).
     // - If the password is correct, it generates and returns a JWT token (using the admin’s username) with a 200 OK status.
     // - If the password is incorrect, it returns a 401 Unauthorized status with an error message.
     // - If no admin is found, it also returns a 401 Unauthorized.
@@ -69,10 +87,14 @@ public class AppService {
     @Transactional
     public ResponseEntity<Map<String, String>> validateAdmin(Admin receivedAdmin) {
         try {
-            Admin admin = adminRepository.findByUsername(receivedAdmin.getUsername());
+            Admin admin = identityCache.findAdminByUsername(receivedAdmin.getUsername());
             if (admin != null) {
-                if (admin.getPassword().equals(receivedAdmin.getPassword())) {
-                    String token = tokenService.generateToken(admin.getUsername());
+                if (passwordService.matches(receivedAdmin.getPassword(), admin.getPassword())) {
+                    if (passwordService.needsRehash(admin.getPassword())) {
+                        adminRepository.updatePassword(admin.getId(), passwordService.hash(receivedAdmin.getPassword()));
+                        identityCache.evictAdmin(admin.getUsername());
+                    }
+                    String token = tokenService.generateToken(admin.getUsername(), "admin", admin.getId());
                     return ResponseEntity.ok(Map.of("token", token));
                 } else {
                     return ResponseEntity.status(401).body(Map.of("error", "Invalid password"));
@@ -87,84 +109,59 @@ public class AppService {
     }
     // 5. **filterDoctor Method**
     // This method provides filtering functionality for doctors based on name, specialty, and available time slots.
-    // - It supports various combinations of the three filters.
-    // - If none of the filters are provided, it returns all available doctors.
+    // - Any combination of the three filters (including none, which returns all doctors) is served by the single
+    //   composable query in `DoctorService.filterDoctors`, and always returns the same shape: {"doctors": [...]}.
     // This flexible filtering mechanism allows the frontend or consumers of the API to search and narrow down doctors based on user criteria.
     @Transactional
     public Map<String, Object> filterDoctor(String name, String specialty, String time) {
         try {
-            if (name != null && specialty != null && time != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorsByNameSpecialtyAndTime(name, specialty, time)));
-            } else if (name != null && specialty != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorByNameAndSpecility(name, specialty)));
-            } else if (name != null && time != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorByNameAndTime(name, time)));
-            } else if (specialty != null && time != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorByTimeAndSpecility(specialty, time)));
-            } else if (name != null) {
-                return Map.of("doctors", extractDoctors(doctorService.findDoctorByName(name)));
-            } else if (specialty != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorsBySpecility(specialty)));
-            } else if (time != null) {
-                return Map.of("doctors", extractDoctors(doctorService.filterDoctorsByTime(time)));
-            } else {
-                return Map.of("doctors", doctorService.getDoctors());
-            }
+            return Map.of("doctors", doctorService.filterDoctors(name, specialty, time));
         } catch (Exception e) {
             e.printStackTrace();
             return Map.of("error", "An error occurred while filtering doctors");
         }
     }
-
-    @SuppressWarnings("unchecked")
-    private java.util.List<Doctor> extractDoctors(Object result) {
-        if (result instanceof java.util.Map<?, ?> map) {
-            Object doctors = map.get("doctors");
-            if (doctors instanceof java.util.List<?> list) {
-                return (java.util.List<Doctor>) list;
-            }
-        } else if (result instanceof java.util.List<?> list) {
-            return (java.util.List<Doctor>) list;
-        }
-        return java.util.List.of();
-    }
     // 6. **validateAppointment Method**
     // This method validates if the requested appointment time for a doctor is available.
-    // - It first checks if the doctor exists in the repository.
-    // - Then, it retrieves the list of available time slots for the doctor on the specified date.
+    // - It first checks if the doctor exists (through the `AvailabilityIndex`).
+    // - Then, it retrieves the doctor's scheduled slots for that date (weekly blocks adjusted by exceptions).
     // - It compares the requested appointment time with the start times of these slots.
-    // - If a match is found, it returns 1 (valid appointment time).
-    // - If no matching time slot is found, it returns 0 (invalid).
+    // - If a match is found and the slot looks free, it returns 1 (valid appointment time).
+    // - If no matching time slot is found, or the time is not in the future, it returns 0 (invalid). A booking longer than one slot must also find every slot
+    //   it runs into offered, so a long duration cannot reach past the doctor's block or into time off.
+    // - If the appointment would overlap another booking of the doctor (for its whole duration), or another patient holds
+    //   any slot it covers (`SlotHoldRegistry`), it returns 2 (slot taken). An unsupported duration counts as invalid (0).
+    //   Hold ownership is decided by the caller's principal, never by the patient named in the request body.
     // - If the doctor doesn’t exist, it returns -1.
-    // This logic prevents overlapping or invalid appointment bookings.
+    // For new bookings the overlap check is only a fast-fail hint against the in-memory `BookedIntervals` (disable it
+    // with `booking.conflict-precheck=false`): `AppointmentService` re-checks under a lock on the doctor before inserting.
+    // Reschedules (appointments with an id) skip it here; `updateAppointment` runs the only overlap check, under the lock.
     @Transactional
-    public int validateAppointment(Appointment appointment) {
+    public int validateAppointment(Appointment appointment, AuthenticatedPrincipal principal) {
         try {
-            var doctor = doctorRepository.findById(appointment.getDoctor().getId()).orElse(null);
-            if (doctor == null) {
+            Long doctorId = appointment.getDoctor().getId();
+            WeeklySchedule schedule = availabilityIndex.schedule(doctorId);
+            if (schedule == null) {
                 return -1; // Doctor does not exist
             } else {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-                String requestedStart = appointment.getAppointmentTime().toLocalTime().format(formatter);
-
-                List<String> configuredSlots = doctor.getAvailableTimes() == null
-                        ? Collections.emptyList()
-                        : doctor.getAvailableTimes();
-                boolean slotConfigured = configuredSlots.stream()
-                        .anyMatch(slot -> slot.startsWith(requestedStart));
-                if (!slotConfigured) {
+                if (!appointment.getAppointmentTime().isAfter(LocalDateTime.now())
+                        || !Appointment.isValidDuration(appointment.getDurationMinutes())
+                        || !schedule.offers(appointment.getAppointmentTime(), appointment.getDurationMinutes())) {
                     return 0;
                 }
+                Long patientId = principal != null && principal.hasRole("patient") ? principal.id() : null;
+                if (slotHolds.isHeldByOther(doctorId, appointment.getAppointmentTime(), appointment.getDurationMinutes(), patientId)) {
+                    return 2;
+                }
+                if (!conflictPrecheck || appointment.getId() != null) {
+                    return 1; // Reschedules are checked for overlaps only under the doctor's lock, in `AppointmentService`
+                }
 
+                // New booking: the in-memory index answers without a database read
                 LocalDateTime start = appointment.getAppointmentTime().withSecond(0).withNano(0);
-                LocalDateTime end = start.plusMinutes(1);
-                List<Appointment> overlapping = appointmentRepository
-                        .findByDoctorIdAndAppointmentTimeBetween(doctor.getId(), start, end);
-
-                boolean hasConflict = overlapping.stream()
-                        .anyMatch(existing -> appointment.getId() == null
-                                || !existing.getId().equals(appointment.getId()));
-                return hasConflict ? 0 : 1;
+                boolean taken = availabilityIndex.bookedIntervals(doctorId, start.toLocalDate())
+                        .overlaps(BookedIntervals.minuteOf(start.toLocalDate(), start), appointment.getDurationMinutes());
+                return taken ? 2 : 1;
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -179,7 +176,7 @@ public class AppService {
     @Transactional
     public boolean validatePatient(Patient patient) {
         try {
-            var existingPatientByEmail = patientRepository.findByEmail(patient.getEmail());
+            var existingPatientByEmail = identityCache.findPatientByEmail(patient.getEmail());
             var existingPatientByPhone = patientRepository.findByPhone(patient.getPhone());
             if (existingPatientByEmail != null || existingPatientByPhone != null) {
                 return false; // Patient with same email or phone number exists
@@ -193,7 +190,7 @@ public class AppService {
     // 8. **validatePatientLogin Method**
     // This method handles login validation for patient users.
     // - It looks up the patient by email.
-    // - If found, it checks whether the provided password matches the stored one.
+    // - If found, it checks the provided password against the stored hash (rehashing legacy plaintext or outdated hashes).
     // - On successful validation, it generates a JWT token and returns it with a 200 OK status.
     // - If the password is incorrect or the patient doesn't exist, it returns a 401 Unauthorized with a relevant error.
     // - If an exception occurs, it returns a 500 Internal Server Error.
@@ -201,10 +198,14 @@ public class AppService {
     @Transactional
     public ResponseEntity<Map<String, Object>> validatePatientLogin(Login login) {
         try {
-            var patient = patientRepository.findByEmail(login.getEmail());
+            var patient = identityCache.findPatientByEmail(login.getEmail());
             if (patient != null) {
-                if (patient.getPassword().equals(login.getPassword())) {
-                    String token = tokenService.generateToken(patient.getEmail());
+                if (passwordService.matches(login.getPassword(), patient.getPassword())) {
+                    if (passwordService.needsRehash(patient.getPassword())) {
+                        patientRepository.updatePassword(patient.getId(), passwordService.hash(login.getPassword()));
+                        identityCache.evictPatient(patient.getEmail());
+                    }
+                    String token = tokenService.generateToken(patient.getEmail(), "patient", patient.getId());
                     return ResponseEntity.ok(Map.of("token", token, "patient", patient));
                 } else {
                     return ResponseEntity.status(401).body(Map.of("error", "Invalid password"));
@@ -219,22 +220,17 @@ public class AppService {
     }
     // 9. **filterPatient Method**
     // This method filters a patient's appointment history based on condition and doctor name.
-    // - It extracts the email from the JWT token to identify the patient.
+    // - The patient is identified by the request's authenticated principal, resolved once from the JWT token.
     // - Depending on which filters (condition, doctor name) are provided, it delegates the filtering logic to PatientService.
     // - If no filters are provided, it retrieves all appointments for the patient.
     // This flexible method supports patient-specific querying and enhances user experience on the client side.
     @Transactional
-    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token) {
+    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, AuthenticatedPrincipal principal) {
         try {
-            String email = tokenService.extractEmail(token);
-            if (email == null || email.isEmpty()) {
+            if (principal == null || !principal.hasRole("patient")) {
                 return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
             }
-            var patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                return ResponseEntity.status(404).body(Map.of("error", "Patient not found"));
-            }
-            Long patientId = patient.getId();
+            Long patientId = principal.id();
             if (condition != null && name != null) {
                 return patientService.filterByDoctorAndCondition(name, condition, patientId);
             } else if (name != null) {
@@ -0,0 +1,134 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.back_end.DTO.AppointmentExportRow;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Writes a doctor's appointments as NDJSON or CSV while they are read, for reconciliation exports of any length.
+//    - Rows come from a forward-only JDBC stream (`AppointmentRepository.streamForExport`) inside one read-only
+//      transaction, and each row is encoded and handed to the output buffer before the next one is read, so memory stays
+//      flat whether the export covers a week or many years.
+//    - Rows are written in time order; exported row counts are published as `appointment.export.rows`.
+@Component
+public class AppointmentExport {
+    // Bounds of MySQL's DATETIME, used when the export is not limited to a date range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String CSV_HEADER = "id,doctor_id,appointment_time,duration_minutes,status,patient_id,patient_name,patient_email,patient_phone\n";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        // Returns null for an unknown format name.
+        public static Format of(String name) {
+            try {
+                return Format.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rows;
+
+    public AppointmentExport(AppointmentRepository appointmentRepository, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.rowWriter = objectMapper.writerFor(AppointmentExportRow.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rows = Counter.builder("appointment.export.rows").register(meterRegistry);
+    }
+
+    // Writes the doctor's appointments on the days [from, to] (either may be null for no bound) to `out`, and returns
+    // how many were written. `out` is flushed but not closed.
+    public long write(Long doctorId, LocalDate from, LocalDate to, Format format, OutputStream out) {
+        LocalDateTime start = from == null ? EARLIEST : from.atStartOfDay();
+        LocalDateTime end = to == null ? LATEST : to.plusDays(1).atStartOfDay();
+        return transactionTemplate.execute(status -> {
+            try (Stream<AppointmentExportRow> stream = appointmentRepository.streamForExport(doctorId, start, end)) {
+                OutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+                if (format == Format.CSV) {
+                    buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+                long count = 0;
+                for (Iterator<AppointmentExportRow> it = stream.iterator(); it.hasNext(); count++) {
+                    AppointmentExportRow row = it.next();
+                    buffered.write(format == Format.CSV ? csv(row) : rowWriter.writeValueAsBytes(row));
+                    buffered.write('\n');
+                }
+                buffered.flush();
+                rows.increment(count);
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static byte[] csv(AppointmentExportRow row) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(row.id()).append(',')
+                .append(row.doctorId()).append(',')
+                .append(row.appointmentTime()).append(',')
+                .append(row.durationMinutes()).append(',')
+                .append(row.status()).append(',')
+                .append(row.patientId() == null ? "" : row.patientId()).append(',');
+        field(line, row.patientName()).append(',');
+        field(line, row.patientEmail()).append(',');
+        field(line, row.patientPhone());
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: quote values containing separators, quotes or line breaks, doubling embedded quotes. Values a spreadsheet
+    // would run as a formula (leading `=`, `+`, `-`, `@`, tab or carriage return) are prefixed with `'` so they stay text.
+    private static StringBuilder field(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
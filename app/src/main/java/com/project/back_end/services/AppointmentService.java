@@ -5,11 +5,28 @@ import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.SlotHoldRequest;
+import com.project.back_end.DTO.AppointmentSeriesRequest;
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.DTO.BookingResult;
+import com.project.back_end.DTO.DashboardAppointment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.http.ResponseEntity;
+import org.springframework.dao.DataIntegrityViolationException;
 import java.util.Map;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 // 1. **Add @Service Annotation**:
 //    - To indicate that this class is a service layer class for handling business logic.
@@ -25,65 +42,353 @@ public class AppointmentService {
     private final TokenService tokenService;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotHoldRegistry slotHolds;
+    private final TransactionTemplate transactionTemplate;
+    private final DailyScheduleReadModel dailySchedules;
 
-    public AppointmentService(AppointmentRepository appointmentRepository, AppService appService, TokenService tokenService, PatientRepository patientRepository, DoctorRepository doctorRepository) {
+    public static final int MAX_BATCH_APPOINTMENTS = 52;
+
+    public AppointmentService(AppointmentRepository appointmentRepository, AppService appService, TokenService tokenService, PatientRepository patientRepository, DoctorRepository doctorRepository, AvailabilityIndex availabilityIndex, SlotHoldRegistry slotHolds, PlatformTransactionManager transactionManager, DailyScheduleReadModel dailySchedules) {
         this.appointmentRepository = appointmentRepository;
         this.appService = appService;
         this.tokenService = tokenService;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.slotHolds = slotHolds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dailySchedules = dailySchedules;
     }
     // 3. **Add @Transactional Annotation for Methods that Modify Database**:
     //    - The methods that modify or update the database should be annotated with `@Transactional` to ensure atomicity and consistency of the operations.
     //    - Instruction: Add the `@Transactional` annotation above methods that interact with the database, especially those modifying data.
-    @Transactional
-    public int bookAppointment(Appointment appointment) {
+    //    - `bookAppointment` is the exception: it runs its own transaction so that a conflict surfaces here, where it can
+    //      be reported as "slot taken", instead of failing the caller's commit.
+    public int bookAppointment(Appointment appointment, AuthenticatedPrincipal principal) {
         try {
-            appointmentRepository.save(appointment);
+            if (principal == null || !principal.hasRole("patient")) {
+                return 0; // Only a patient books, and only for themselves
+            }
+            if (!DailySlots.isSlotStart(appointment.getAppointmentTime().toLocalTime())) {
+                return 0; // Off the slot grid: (doctor, appointment_time) would no longer identify the slot
+            }
+            if (!appointment.getAppointmentTime().isAfter(LocalDateTime.now())) {
+                return 0;
+            }
+            appointment.setPatient(patientRepository.getReferenceById(principal.id())); // Never the patient named in the body
+            Long doctorId = appointment.getDoctor().getId();
+            boolean booked = transactionTemplate.execute(status -> {
+                doctorRepository.lockForBooking(doctorId);
+                if (!findOverlaps(doctorId, List.of(appointment.getAppointmentTime()), appointment.getDurationMinutes()).isEmpty()) {
+                    return false;
+                }
+                appointmentRepository.saveAndFlush(appointment);
+                availabilityIndex.recordBooking(doctorId, appointment.getAppointmentTime(), appointment.getDurationMinutes());
+                dailySchedules.recordChange(doctorId, List.of(appointment.getAppointmentTime().toLocalDate()));
+                return true;
+            });
+            if (!booked) {
+                return -1; // Overlaps another booking of the doctor
+            }
+            slotHolds.releaseSlot(doctorId, appointment.getAppointmentTime(), principal.id());
             return 1;
+        } catch (DataIntegrityViolationException e) {
+            return -1; // Another booking already owns this (doctor, slot)
         } catch (Exception e) {
             return 0;
         }
     }
     // 4. **Book Appointment Method**:
     //    - Responsible for saving the new appointment to the database.
-    //    - If the save operation fails, it returns `0`; otherwise, it returns `1`.
+    //    - If the appointment would overlap another booking of the doctor, it returns `-1`. The overlap check reads the
+    //      doctor's bookings while holding a lock on the doctor's row, so two overlapping bookings with different start
+    //      times cannot both pass it; the unique (doctor, start) key still backs up identical starts.
+    //    - The appointment is always booked for the calling patient (`AuthenticatedPrincipal`), whatever patient the request
+    //      body names.
+    //    - If the caller is not a patient, the time is not a future slot start, or the save operation fails, it returns
+    //      `0`; otherwise, it returns `1`.
+    //    - A successful booking releases the calling patient's hold on the slot, if any.
     //    - Instruction: Ensure that the method handles any exceptions and returns an appropriate result code.
+    public ResponseEntity<Map<String, Object>> holdSlot(SlotHoldRequest request, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("patient")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        if (request == null || request.doctorId() == null || request.appointmentTime() == null) {
+            return ResponseEntity.status(400).body(Map.of("error", "doctorId and appointmentTime are required"));
+        }
+        LocalDateTime start = request.appointmentTime().withSecond(0).withNano(0);
+        if (!start.isAfter(LocalDateTime.now())) {
+            return ResponseEntity.status(400).body(Map.of("error", "Appointment time must be in the future"));
+        }
+        WeeklySchedule schedule = availabilityIndex.schedule(request.doctorId());
+        if (schedule == null) {
+            return ResponseEntity.status(400).body(Map.of("error", "Invalid doctor ID"));
+        }
+        if (!schedule.slotsOn(start.toLocalDate()).contains(start.toLocalTime())) {
+            return ResponseEntity.status(400).body(Map.of("error", "Invalid appointment time"));
+        }
+        if (availabilityIndex.bookedIntervals(request.doctorId(), start.toLocalDate())
+                .overlaps(BookedIntervals.minuteOf(start.toLocalDate(), start), WeeklySchedule.APPOINTMENT_MINUTES)) {
+            return ResponseEntity.status(409).body(Map.of("error", "Appointment slot already taken"));
+        }
+        SlotHoldRegistry.Hold hold = slotHolds.hold(request.doctorId(), start, principal.id());
+        if (hold == null) {
+            return ResponseEntity.status(409).body(Map.of("error", "Appointment slot is held by another patient"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "holdId", hold.holdId(),
+                "doctorId", hold.doctorId(),
+                "appointmentTime", hold.start(),
+                "expiresAt", Instant.ofEpochMilli(hold.expiresAt()).toString()));
+    }
+    // **Hold Slot Method**:
+    //    - Reserves a (doctor, slot) for the patient for a short time while they confirm, without touching the database
+    //      when the doctor's slots and bookings are already in the `AvailabilityIndex`.
+    //    - Returns `409` if the slot is booked or held by another patient; holding a slot again extends the hold.
+    //    - Held slots disappear from availability responses and are rejected for other patients' bookings until they expire.
+    public ResponseEntity<Map<String, String>> releaseHold(String holdId, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("patient")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        if (!slotHolds.release(holdId, principal.id())) {
+            return ResponseEntity.status(404).body(Map.of("error", "Hold not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Hold released"));
+    }
+    // **Release Hold Method**:
+    //    - Releases one of the patient's own holds before it expires (e.g. when they abandon the booking form).
+    public ResponseEntity<Map<String, Object>> bookAppointments(AppointmentSeriesRequest request, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("patient")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        List<LocalDateTime> times = expandSeries(request);
+        if (request == null || request.doctorId() == null || times.isEmpty()) {
+            return ResponseEntity.status(400).body(Map.of("error", "doctorId and appointmentTimes (or firstAppointment and occurrences) are required"));
+        }
+        if (times.size() > MAX_BATCH_APPOINTMENTS) {
+            return ResponseEntity.status(400).body(Map.of("error", "At most " + MAX_BATCH_APPOINTMENTS + " appointments can be booked at once"));
+        }
+        int minutes = request.durationMinutes() == null ? Appointment.DEFAULT_DURATION_MINUTES : request.durationMinutes();
+        if (!Appointment.isValidDuration(minutes)) {
+            return ResponseEntity.status(400).body(Map.of("error", "durationMinutes must be a multiple of "
+                    + Appointment.DURATION_STEP_MINUTES + " up to " + Appointment.MAX_DURATION_MINUTES));
+        }
+        Long doctorId = request.doctorId();
+        WeeklySchedule schedule = availabilityIndex.schedule(doctorId);
+        if (schedule == null) {
+            return ResponseEntity.status(400).body(Map.of("error", "Invalid doctor ID"));
+        }
+
+        // One range query covers every requested slot; minutes are counted from the first requested day
+        LocalDate origin = times.stream().min(LocalDateTime::compareTo).get().toLocalDate();
+        BookedIntervals booked = bookedIntervals(doctorId, times, minutes, origin);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<LocalDateTime, BookingResult> results = new LinkedHashMap<>();
+        List<LocalDateTime> candidates = new ArrayList<>();
+        for (LocalDateTime time : times) {
+            if (results.containsKey(time)) {
+                continue; // Duplicate in the request; reported once
+            }
+            if (!time.isAfter(now)) {
+                results.put(time, BookingResult.rejected(time, BookingResult.INVALID, "Appointment time must be in the future"));
+            } else if (!schedule.offers(time, minutes)) {
+                results.put(time, BookingResult.rejected(time, BookingResult.INVALID, "Invalid appointment time"));
+            } else if (booked.overlaps(BookedIntervals.minuteOf(origin, time), minutes) || slotHolds.isHeldByOther(doctorId, time, minutes, principal.id())) {
+                results.put(time, BookingResult.rejected(time, BookingResult.CONFLICT, "Appointment slot already taken"));
+            } else {
+                results.put(time, null);
+                candidates.add(time);
+                booked = booked.with(BookedIntervals.minuteOf(origin, time), minutes); // Later requested slots may not overlap it
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            try {
+                List<Appointment> saved = transactionTemplate.execute(status -> insertAll(doctorId, principal.id(), candidates, minutes));
+                for (Appointment appointment : saved) {
+                    results.put(appointment.getAppointmentTime(), BookingResult.booked(appointment.getAppointmentTime(), appointment.getId()));
+                    slotHolds.releaseSlot(doctorId, appointment.getAppointmentTime(), principal.id());
+                }
+            } catch (DataIntegrityViolationException | SlotTakenException e) {
+                // A concurrent booking took one of the slots after the range query; settle each slot on its own
+                for (LocalDateTime time : candidates) {
+                    results.put(time, bookOne(doctorId, principal.id(), time, minutes));
+                }
+            }
+        }
+        List<BookingResult> outcome = new ArrayList<>(results.values());
+        long bookedCount = outcome.stream().filter(result -> BookingResult.BOOKED.equals(result.status())).count();
+        return ResponseEntity.ok(Map.of("results", outcome, "booked", bookedCount, "requested", outcome.size()));
+    }
+    // **Batch Booking Method**:
+    //    - Books several appointments with one doctor for the calling patient, e.g. a weekly follow-up series.
+    //    - Every requested slot is validated against a single `findBookedSlots` range query plus the in-memory doctor
+    //      schedule and holds, for the requested duration (and against each other); a booking longer than one slot needs
+    //      every slot it covers offered and unheld. Only the slots that pass are inserted,
+    //      all in one transaction, after re-checking overlaps under the doctor's lock.
+    //    - Appointment ids come from a pooled sequence, so the inserts go out as JDBC batches (`hibernate.jdbc.batch_size`).
+    //    - The result is per slot (`booked`, `conflict`, `invalid`); one bad slot does not fail the others. If a concurrent
+    //      booking wins a slot between validation and insert, the batch is retried slot by slot to report exactly which one lost.
+
+    private List<Appointment> insertAll(Long doctorId, Long patientId, List<LocalDateTime> times, int minutes) {
+        var doctor = doctorRepository.lockForBooking(doctorId);
+        if (!findOverlaps(doctorId, times, minutes).isEmpty()) {
+            throw new SlotTakenException();
+        }
+        var patient = patientRepository.getReferenceById(patientId);
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDateTime time : times) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentTime(time);
+            appointment.setDurationMinutes(minutes);
+            appointment.setStatus(0);
+            appointments.add(appointment);
+        }
+        List<Appointment> saved = appointmentRepository.saveAll(appointments);
+        appointmentRepository.flush();
+        for (Appointment appointment : saved) {
+            availabilityIndex.recordBooking(doctorId, appointment.getAppointmentTime(), minutes);
+        }
+        dailySchedules.recordChange(doctorId, times.stream().map(LocalDateTime::toLocalDate).toList());
+        return saved;
+    }
+
+    private BookingResult bookOne(Long doctorId, Long patientId, LocalDateTime time, int minutes) {
+        try {
+            List<Appointment> saved = transactionTemplate.execute(status -> insertAll(doctorId, patientId, List.of(time), minutes));
+            slotHolds.releaseSlot(doctorId, time, patientId);
+            return BookingResult.booked(time, saved.get(0).getId());
+        } catch (DataIntegrityViolationException | SlotTakenException e) {
+            return BookingResult.rejected(time, BookingResult.CONFLICT, "Appointment slot already taken");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return BookingResult.rejected(time, BookingResult.INVALID, "Failed to book appointment");
+        }
+    }
+
+    // The doctor's bookings around the given start times, as intervals in minutes from `origin`.
+    private BookedIntervals bookedIntervals(Long doctorId, List<LocalDateTime> times, int minutes, LocalDate origin) {
+        LocalDateTime first = times.stream().min(LocalDateTime::compareTo).get();
+        LocalDateTime last = times.stream().max(LocalDateTime::compareTo).get();
+        BookedIntervals booked = BookedIntervals.EMPTY;
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(List.of(doctorId),
+                first.minusMinutes(Appointment.MAX_DURATION_MINUTES), last.plusMinutes(minutes))) {
+            booked = booked.with(BookedIntervals.minuteOf(origin, slot.appointmentTime()), slot.minutes());
+        }
+        return booked;
+    }
+
+    // The start times whose appointment of `minutes` would overlap a stored booking of the doctor.
+    private List<LocalDateTime> findOverlaps(Long doctorId, List<LocalDateTime> times, int minutes) {
+        return findOverlaps(doctorId, times, minutes, null);
+    }
+
+    // As above, ignoring the stored booking of `moved` (an appointment being rescheduled, not yet changed).
+    private List<LocalDateTime> findOverlaps(Long doctorId, List<LocalDateTime> times, int minutes, Appointment moved) {
+        LocalDate origin = times.stream().min(LocalDateTime::compareTo).get().toLocalDate();
+        BookedIntervals found = bookedIntervals(doctorId, times, minutes, origin);
+        BookedIntervals booked = moved == null ? found
+                : found.without(BookedIntervals.minuteOf(origin, moved.getAppointmentTime()), moved.getDurationMinutes());
+        return times.stream().filter(time -> booked.overlaps(BookedIntervals.minuteOf(origin, time), minutes)).toList();
+    }
+
+    // Thrown inside a booking transaction to roll it back when a slot turned out to be taken.
+    private static final class SlotTakenException extends RuntimeException {
+        SlotTakenException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Explicit `appointmentTimes`, or `occurrences` slots starting at `firstAppointment` every `intervalDays` (default 7),
+    // normalised to the minute and in request order.
+    private static List<LocalDateTime> expandSeries(AppointmentSeriesRequest request) {
+        Set<LocalDateTime> times = new LinkedHashSet<>();
+        if (request == null) {
+            return List.of();
+        }
+        if (request.appointmentTimes() != null) {
+            for (LocalDateTime time : request.appointmentTimes()) {
+                if (time != null) {
+                    times.add(time.withSecond(0).withNano(0));
+                }
+            }
+        }
+        if (request.firstAppointment() != null && request.occurrences() != null) {
+            int interval = request.intervalDays() == null || request.intervalDays() < 1 ? 7 : request.intervalDays();
+            int occurrences = Math.min(request.occurrences(), MAX_BATCH_APPOINTMENTS + 1);
+            for (int i = 0; i < occurrences; i++) {
+                times.add(request.firstAppointment().withSecond(0).withNano(0).plusDays((long) i * interval));
+            }
+        }
+        return new ArrayList<>(times);
+    }
     @Transactional
-    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
+    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment, AuthenticatedPrincipal principal) {
         try {
             Appointment existingAppointment = appointmentRepository.findById(appointment.getId()).orElse(null);
             if (existingAppointment == null) {
                 return ResponseEntity.status(404).body(Map.of("error", "Appointment not found"));
             }
+            LocalDateTime previousTime = existingAppointment.getAppointmentTime();
+            LocalDateTime newTime = appointment.getAppointmentTime().withSecond(0).withNano(0);
             boolean statusChanged = existingAppointment.getStatus() != appointment.getStatus();
-            boolean timeChanged = !existingAppointment.getAppointmentTime().equals(appointment.getAppointmentTime());
+            boolean timeChanged = !previousTime.equals(newTime);
             if (timeChanged == false && statusChanged == true) {
                 appointmentRepository.updateStatus(appointment.getStatus(), existingAppointment.getId());
                 return ResponseEntity.ok(Map.of("message", "Appointment status updated successfully"));
             }
-            existingAppointment.setAppointmentTime(appointment.getAppointmentTime());
-            existingAppointment.setStatus(appointment.getStatus());
-            int isValid = appService.validateAppointment(existingAppointment);
+            // Validated as a detached copy, so a rejected time never reaches the managed entity (and the commit)
+            int isValid = appService.validateAppointment(rescheduled(existingAppointment, newTime), principal);
             if (isValid != 1) {
                 return ResponseEntity.status(400).body(Map.of("error", "Invalid appointment time"));
             }
+            doctorRepository.lockForBooking(existingAppointment.getDoctor().getId());
+            // Checked under the lock and before the entity changes, so the appointment's stored booking is the one excluded
+            if (!findOverlaps(existingAppointment.getDoctor().getId(), List.of(newTime), existingAppointment.getDurationMinutes(),
+                    existingAppointment).isEmpty()) {
+                return ResponseEntity.status(409).body(Map.of("error", "Appointment slot already taken"));
+            }
+            existingAppointment.setAppointmentTime(newTime);
+            existingAppointment.setStatus(appointment.getStatus());
             appointmentRepository.save(existingAppointment);
+            availabilityIndex.recordReschedule(existingAppointment.getDoctor().getId(), previousTime, existingAppointment.getAppointmentTime(),
+                    existingAppointment.getDurationMinutes());
+            dailySchedules.recordChange(existingAppointment.getDoctor().getId(),
+                    List.of(previousTime.toLocalDate(), existingAppointment.getAppointmentTime().toLocalDate()));
             return ResponseEntity.ok(Map.of("message", "Appointment updated successfully"));
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly(); // Nothing half-applied may commit
             return ResponseEntity.status(500).body(Map.of("error", "Error updating appointment"));
         }
     }
+
+    // A copy of the appointment moved to `time`, for validation without touching the managed entity.
+    private static Appointment rescheduled(Appointment appointment, LocalDateTime time) {
+        Appointment copy = new Appointment();
+        copy.setId(appointment.getId());
+        copy.setDoctor(appointment.getDoctor());
+        copy.setPatient(appointment.getPatient());
+        copy.setAppointmentTime(time);
+        copy.setDurationMinutes(appointment.getDurationMinutes());
+        copy.setStatus(appointment.getStatus());
+        return copy;
+    }
     // 5. **Update Appointment Method**:
     //    - This method is used to update an existing appointment based on its ID.
     //    - It validates whether the patient ID matches, checks if the appointment is available for updating, and ensures that the doctor is available at the specified time.
     //    - If the update is successful, it saves the appointment; otherwise, it returns an appropriate error message.
     //    - Instruction: Ensure proper validation and error handling is included for appointment updates.
     @Transactional
-    public ResponseEntity<Map<String, String>> cancelAppointment(Long id, String token) {
+    public ResponseEntity<Map<String, String>> cancelAppointment(Long id, AuthenticatedPrincipal principal) {
         try {
-            String patientEmail = tokenService.extractEmail(token);
-            Long patientId = patientRepository.findByEmail(patientEmail).getId();
+            if (principal == null || !principal.hasRole("patient")) {
+                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+            }
+            Long patientId = principal.id();
             Appointment appointment = appointmentRepository.findById(id).orElse(null);
             if (appointment == null) {
                 return ResponseEntity.status(404).body(Map.of("error", "Appointment not found"));
@@ -92,6 +397,8 @@ public class AppointmentService {
                 return ResponseEntity.status(403).body(Map.of("error", "Unauthorized to cancel this appointment"));
             }
             appointmentRepository.delete(appointment);
+            availabilityIndex.recordCancellation(appointment.getDoctor().getId(), appointment.getAppointmentTime(), appointment.getDurationMinutes());
+            dailySchedules.recordChange(appointment.getDoctor().getId(), List.of(appointment.getAppointmentTime().toLocalDate()));
             return ResponseEntity.ok(Map.of("message", "Appointment cancelled successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Error cancelling appointment"));
@@ -101,27 +408,30 @@ public class AppointmentService {
     //    - This method cancels an appointment by deleting it from the database.
     //    - It ensures the patient who owns the appointment is trying to cancel it and handles possible errors.
     //    - Instruction: Make sure that the method checks for the patient ID match before deleting the appointment.
-    @Transactional
-    public Map<String, Object> getAppointments(String patientName, LocalDate date, String token ) {
-        List <Appointment> appointments;
-        String doctorEmail = tokenService.extractEmail(token);
-        Long doctorId = doctorRepository.findByEmail(doctorEmail).getId();
-        if (date == null) {
-        appointments = (patientName == null || patientName.isBlank())
+    public Map<String, Object> getAppointments(String patientName, LocalDate date, AuthenticatedPrincipal principal) {
+        Long doctorId = principal.id();
+        if (date != null) {
+            List<DashboardAppointment> day = dailySchedules.appointments(doctorId, date);
+            if (patientName != null && !patientName.isBlank()) {
+                String wanted = patientName.toLowerCase(Locale.ROOT);
+                day = day.stream().filter(appointment -> appointment.patient() != null && appointment.patient().name() != null
+                        && appointment.patient().name().toLowerCase(Locale.ROOT).contains(wanted)).toList();
+            }
+            return Map.of("appointments", day);
+        }
+        List <Appointment> appointments = (patientName == null || patientName.isBlank())
             ? appointmentRepository.findByDoctorId(doctorId)
             : appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCase(doctorId, patientName);
-        } else if (patientName == null || patientName.isBlank()) {
-            appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(
-                    doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
-        } else {
-            appointments = appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                    doctorId, patientName, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
-        }
         return Map.of("appointments", appointments);
     }
     // 7. **Get Appointments Method**:
     //    - This method retrieves a list of appointments for a specific doctor on a particular day, optionally filtered by the patient's name.
-    //    - It uses `@Transactional` to ensure that database operations are consistent and handled in a single transaction.
+    //    - The doctor is identified by the request's authenticated principal, so no token parsing or doctor lookup happens here.
+    //    - A single day (the dashboard's view) is served from `DailyScheduleReadModel`: one primary-key lookup of rows already
+    //      shaped like the appointments the dashboard renders, filtered by patient name in memory. Only the "all dates"
+    //      view still queries the appointment table.
+    //    - It is deliberately not `@Transactional`: each lookup is a single query, and a read-model miss should not hold a
+    //      connection open around the computation and store it does on its own.
     //    - Instruction: Ensure the correct use of transaction boundaries, especially when querying the database for appointments.
 
     // 8. **Change Status Method**:
@@ -0,0 +1,58 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Moves scheduled appointments (status 0) whose time has passed to completed (status 1), so the stored status agrees
+// with the clock for clients and reports that read it.
+//    - Runs every `appointment-status.interval-ms`. Each run updates in chunks of at most `appointment-status.batch-size`
+//      rows, each chunk its own short transaction, so a backlog (e.g. after downtime) never holds many row locks at once
+//      or blocks bookings for long.
+//    - Appointments marked as no-shows (status 2) or otherwise changed by hand are left alone.
+//    - Patient history reads derive past/future from the appointment time unless `appointment-status.derive-from-time`
+//      is false, so they are correct whether or not this job has caught up.
+//    - Transitions are counted in `appointment.status.transitions`.
+@Component
+public class AppointmentStatusEngine {
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter transitions;
+
+    public AppointmentStatusEngine(AppointmentRepository appointmentRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${appointment-status.batch-size:500}") int batchSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.transitions = Counter.builder("appointment.status.transitions").register(meterRegistry);
+    }
+
+    // Completes every scheduled appointment that started before now; returns how many were changed.
+    @Scheduled(fixedDelayString = "${appointment-status.interval-ms:60000}")
+    public long completeElapsed() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        long total = 0;
+        try {
+            int changed;
+            do {
+                changed = transactionTemplate.execute(status -> appointmentRepository.transitionStatus(
+                        Appointment.STATUS_SCHEDULED, Appointment.STATUS_COMPLETED, cutoff, batchSize));
+                total += changed;
+                transitions.increment(changed);
+            } while (changed == batchSize);
+        } catch (Exception e) {
+            e.printStackTrace(); // Retried on the next run
+        }
+        return total;
+    }
+}
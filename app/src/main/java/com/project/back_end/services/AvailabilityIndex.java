@@ -0,0 +1,279 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.WeeklyAvailability;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.WeeklyAvailabilityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory index of doctor availability, so availability reads (which far outnumber bookings) rarely reach MySQL.
+//    - Per doctor it keeps the parsed `WeeklySchedule` (weekly blocks and exceptions); per (doctorId, date) it keeps the
+//      booked intervals (`BookedIntervals`, including the previous evening's bookings that run past midnight) and the
+//      bitmap of slot starts they block for a standard-length appointment.
+//    - Entries are warmed lazily on first read and updated incrementally after bookings, updates and cancellations commit.
+//    - Doctor and schedule writes (`updateDoctor`, `deleteDoctor`, `ScheduleService`) drop everything cached for that doctor.
+//    - Day entries are reloaded once older than `max-age-seconds`; beyond `availability-index.max-days` the oldest-loaded
+//      tenth of them is evicted in one sweep, so reads never take a lock.
+//    - A loaded entry is only stored if no write touched the doctor since the load began; the version check and the store
+//      happen together inside the map's `compute`, so a write landing in between cannot be overwritten by a stale entry.
+//    - With `verify-sample-rate` > 0, that fraction of reads is compared against the database; mismatches are logged,
+//      counted in `availability.index.mismatches` and repaired.
+@Component
+public class AvailabilityIndex {
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final WeeklyAvailabilityRepository weeklyAvailabilityRepository;
+    private final ScheduleExceptionRepository scheduleExceptionRepository;
+    private final SlotHoldRegistry slotHolds;
+    private final Map<Long, WeeklySchedule> doctors = new ConcurrentHashMap<>();
+    private final Map<DayKey, DayEntry> days = new ConcurrentHashMap<>();
+    private final int maxDays;
+    private final Object evictionLock = new Object();
+    // Bumped on every write touching a doctor, so a warm-up that raced with a write never caches its stale read
+    private final Map<Long, AtomicLong> doctorVersions = new ConcurrentHashMap<>();
+    private final long maxAgeMillis;
+    private final double verifySampleRate;
+    private final Counter mismatches;
+
+    public AvailabilityIndex(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository,
+            WeeklyAvailabilityRepository weeklyAvailabilityRepository, ScheduleExceptionRepository scheduleExceptionRepository,
+            SlotHoldRegistry slotHolds, MeterRegistry meterRegistry,
+            @Value("${availability-index.max-days:50000}") int maxDays,
+            @Value("${availability-index.max-age-seconds:600}") long maxAgeSeconds,
+            @Value("${availability-index.verify-sample-rate:0.0}") double verifySampleRate) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.weeklyAvailabilityRepository = weeklyAvailabilityRepository;
+        this.scheduleExceptionRepository = scheduleExceptionRepository;
+        this.slotHolds = slotHolds;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+        this.verifySampleRate = verifySampleRate;
+        this.maxDays = maxDays;
+        this.mismatches = Counter.builder("availability.index.mismatches").register(meterRegistry);
+    }
+
+    // Returns the doctor's schedule, or null if the doctor does not exist.
+    public WeeklySchedule schedule(Long doctorId) {
+        WeeklySchedule cached = doctors.get(doctorId);
+        if (cached != null) {
+            return cached;
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            return null;
+        }
+        return schedules(List.of(doctorId)).getOrDefault(doctorId, WeeklySchedule.EMPTY);
+    }
+
+    // Returns the schedules of doctors known to exist; the ones not cached yet are loaded with one query per table.
+    public Map<Long, WeeklySchedule> schedules(Collection<Long> doctorIds) {
+        Map<Long, WeeklySchedule> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            WeeklySchedule cached = doctors.get(doctorId);
+            if (cached != null) {
+                result.put(doctorId, cached);
+            } else {
+                missing.add(doctorId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        missing.forEach(doctorId -> versions.put(doctorId, version(doctorId)));
+        Map<Long, List<WeeklyAvailability>> blocks = new HashMap<>();
+        for (WeeklyAvailability block : weeklyAvailabilityRepository.findByDoctorIds(missing)) {
+            blocks.computeIfAbsent(block.getDoctor().getId(), id -> new ArrayList<>()).add(block);
+        }
+        Map<Long, List<ScheduleException>> exceptions = new HashMap<>();
+        for (ScheduleException exception : scheduleExceptionRepository.findByDoctorIds(missing)) {
+            exceptions.computeIfAbsent(exception.getDoctor().getId(), id -> new ArrayList<>()).add(exception);
+        }
+        for (Long doctorId : missing) {
+            WeeklySchedule loaded = WeeklySchedule.of(blocks.getOrDefault(doctorId, List.of()), exceptions.getOrDefault(doctorId, List.of()));
+            long version = versions.get(doctorId);
+            doctors.compute(doctorId, (id, current) -> version(id) == version ? loaded : current);
+            result.put(doctorId, loaded);
+        }
+        return result;
+    }
+
+    // Returns the free slot strings of the doctor on the date (scheduled, minus those overlapping a booking, minus held),
+    // or an empty list if unknown.
+    public List<String> freeSlots(Long doctorId, LocalDate date) {
+        WeeklySchedule schedule = schedule(doctorId);
+        if (schedule == null) {
+            return List.of();
+        }
+        return WeeklySchedule.slotStrings(schedule.slotsOn(date).andNot(day(doctorId, date).blocked()).andNot(slotHolds.heldSlots(doctorId, date)));
+    }
+
+    // The doctor's bookings that touch the date, for overlap checks.
+    public BookedIntervals bookedIntervals(Long doctorId, LocalDate date) {
+        return day(doctorId, date).booked();
+    }
+
+    private DayEntry day(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        DayEntry entry = days.get(key);
+        long now = System.currentTimeMillis();
+        if (entry == null || now - entry.loadedAt() > maxAgeMillis) {
+            return warm(key);
+        }
+        if (verifySampleRate > 0 && ThreadLocalRandom.current().nextDouble() < verifySampleRate) {
+            return verify(key, entry);
+        }
+        return entry;
+    }
+
+    public void recordBooking(Long doctorId, LocalDateTime time, int minutes) {
+        afterCommit(() -> update(doctorId, time, minutes, true));
+    }
+
+    public void recordCancellation(Long doctorId, LocalDateTime time, int minutes) {
+        afterCommit(() -> update(doctorId, time, minutes, false));
+    }
+
+    public void recordReschedule(Long doctorId, LocalDateTime from, LocalDateTime to, int minutes) {
+        recordCancellation(doctorId, from, minutes);
+        recordBooking(doctorId, to, minutes);
+    }
+
+    // Adds or removes the booking on its day and, if it runs past midnight, on the next day too.
+    private void update(Long doctorId, LocalDateTime time, int minutes, boolean booked) {
+        bumpVersion(doctorId);
+        LocalDate day = time.toLocalDate();
+        while (BookedIntervals.minuteOf(day, time) + minutes > 0) {
+            DayKey key = new DayKey(doctorId, day);
+            int start = BookedIntervals.minuteOf(day, time);
+            days.computeIfPresent(key, (k, entry) -> {
+                BookedIntervals intervals = booked ? entry.booked().with(start, minutes) : entry.booked().without(start, minutes);
+                return new DayEntry(intervals, intervals.blockedStarts(WeeklySchedule.APPOINTMENT_MINUTES), entry.loadedAt());
+            });
+            day = day.plusDays(1);
+        }
+    }
+
+    public void invalidateDoctor(Long doctorId) {
+        Runnable invalidate = () -> {
+            bumpVersion(doctorId);
+            doctors.remove(doctorId);
+            days.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+        };
+        invalidate.run();
+        afterCommit(invalidate);
+    }
+
+    private DayEntry warm(DayKey key) {
+        long version = version(key.doctorId());
+        DayEntry loaded = load(key);
+        store(key, loaded, version);
+        return loaded;
+    }
+
+    private DayEntry verify(DayKey key, DayEntry entry) {
+        long version = version(key.doctorId());
+        DayEntry actual = load(key);
+        if (!actual.booked().equals(entry.booked()) && store(key, actual, version)) {
+            mismatches.increment();
+            log.warn("Availability index mismatch for doctor {} on {}; repairing entry", key.doctorId(), key.date());
+        }
+        return actual;
+    }
+
+    // Stores the entry loaded at `version` unless a write has touched the doctor since; returns whether it was stored.
+    // Writers bump the version before changing entries, so a write either sees the stored entry or makes this a no-op.
+    private boolean store(DayKey key, DayEntry loaded, long version) {
+        boolean[] stored = new boolean[1];
+        days.compute(key, (k, current) -> {
+            stored[0] = version(k.doctorId()) == version;
+            return stored[0] ? loaded : current;
+        });
+        if (stored[0] && days.size() > maxDays) {
+            evictOldest();
+        }
+        return stored[0];
+    }
+
+    // Drops the oldest-loaded tenth of the day entries (and any overflow), so a full index sweeps rarely.
+    private void evictOldest() {
+        synchronized (evictionLock) {
+            int excess = days.size() - maxDays;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<DayKey, DayEntry>> entries = new ArrayList<>(days.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().loadedAt()));
+            int evict = Math.min(entries.size(), excess + maxDays / 10);
+            for (int i = 0; i < evict; i++) {
+                days.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+    }
+
+    // Bookings starting on the date, plus the previous day's that may still be running at midnight.
+    private DayEntry load(DayKey key) {
+        List<BookedSlot> booked = appointmentRepository.findBookedSlots(List.of(key.doctorId()),
+                key.date().atStartOfDay().minusMinutes(Appointment.MAX_DURATION_MINUTES), key.date().plusDays(1).atStartOfDay());
+        BookedIntervals intervals = BookedIntervals.EMPTY;
+        for (BookedSlot slot : booked) {
+            int start = BookedIntervals.minuteOf(key.date(), slot.appointmentTime());
+            if (start + slot.minutes() > 0) {
+                intervals = intervals.with(start, slot.minutes());
+            }
+        }
+        return new DayEntry(intervals, intervals.blockedStarts(WeeklySchedule.APPOINTMENT_MINUTES), System.currentTimeMillis());
+    }
+
+    private long version(Long doctorId) {
+        return doctorVersions.computeIfAbsent(doctorId, id -> new AtomicLong()).get();
+    }
+
+    private void bumpVersion(Long doctorId) {
+        doctorVersions.computeIfAbsent(doctorId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private record DayEntry(BookedIntervals booked, DailySlots blocked, long loadedAt) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size Bloom filter over strings, safe for concurrent adds and lookups.
+//    - `mightContain` never returns false for an added value; it may return true for values that were never added.
+//    - Bit positions use double hashing over two 64-bit FNV-1a style hashes of the UTF-8 bytes.
+class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(int bits, int hashCount) {
+        int wordCount = Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, hashCount);
+    }
+
+    void add(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value, long seed) {
+        long hash = seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        // Final avalanche so nearby inputs spread across the whole bit range
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,122 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+// Immutable set of one doctor's booked appointment intervals on one day, in minutes from the start of that day.
+//    - Intervals are kept sorted by start, with a running maximum of their ends. Whether [start, end) overlaps any
+//      booking is then two array reads after a binary search: among the intervals starting before `end`, does the
+//      latest-ending one end after `start`? That holds even if stored intervals overlap each other (older data).
+//    - An appointment from the previous evening that runs past midnight has a negative start; one running past midnight
+//      has an end beyond 24:00. A doctor-day holds at most a few dozen bookings, so adding or removing one copies the arrays.
+public final class BookedIntervals {
+    public static final BookedIntervals EMPTY = new BookedIntervals(new int[0], new int[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+
+    private BookedIntervals(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new int[ends.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    // Minutes from the start of `day` to `time` (negative for the day before).
+    public static int minuteOf(LocalDate day, LocalDateTime time) {
+        return (int) ChronoUnit.MINUTES.between(day.atStartOfDay(), time);
+    }
+
+    public BookedIntervals with(int start, int minutes) {
+        int at = insertionPoint(start, start + minutes);
+        int[] newStarts = new int[starts.length + 1];
+        int[] newEnds = new int[ends.length + 1];
+        System.arraycopy(starts, 0, newStarts, 0, at);
+        System.arraycopy(ends, 0, newEnds, 0, at);
+        newStarts[at] = start;
+        newEnds[at] = start + minutes;
+        System.arraycopy(starts, at, newStarts, at + 1, starts.length - at);
+        System.arraycopy(ends, at, newEnds, at + 1, ends.length - at);
+        return new BookedIntervals(newStarts, newEnds);
+    }
+
+    // Removes one booking of exactly [start, start + minutes), if present.
+    public BookedIntervals without(int start, int minutes) {
+        for (int i = lowerBound(start); i < starts.length && starts[i] == start; i++) {
+            if (ends[i] == start + minutes) {
+                int[] newStarts = new int[starts.length - 1];
+                int[] newEnds = new int[ends.length - 1];
+                System.arraycopy(starts, 0, newStarts, 0, i);
+                System.arraycopy(ends, 0, newEnds, 0, i);
+                System.arraycopy(starts, i + 1, newStarts, i, starts.length - i - 1);
+                System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+                return new BookedIntervals(newStarts, newEnds);
+            }
+        }
+        return this;
+    }
+
+    // True if a booking overlaps [start, start + minutes).
+    public boolean overlaps(int start, int minutes) {
+        int before = lowerBound(start + minutes); // Intervals starting before the end
+        return before > 0 && maxEnds[before - 1] > start;
+    }
+
+    // The quarter-hour slot starts at which an appointment of `minutes` would overlap a booking.
+    public DailySlots blockedStarts(int minutes) {
+        DailySlots blocked = DailySlots.EMPTY;
+        for (int i = 0; i < starts.length; i++) {
+            // A slot at t overlaps [start, end) iff start - minutes < t < end
+            int first = Math.max(0, Math.floorDiv(starts[i] - minutes, DailySlots.SLOT_MINUTES) + 1);
+            int last = Math.min(DailySlots.SLOTS_PER_DAY, Math.floorDiv(ends[i] - 1, DailySlots.SLOT_MINUTES) + 1);
+            if (first < last) {
+                blocked = blocked.or(DailySlots.range(first, last));
+            }
+        }
+        return blocked;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private int lowerBound(int start) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Keeps intervals ordered by (start, end), so equal sets have equal arrays.
+    private int insertionPoint(int start, int end) {
+        int at = lowerBound(start);
+        while (at < starts.length && starts[at] == start && ends[at] < end) {
+            at++;
+        }
+        return at;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BookedIntervals other && Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(starts) * 31 + Arrays.hashCode(ends);
+    }
+}
@@ -0,0 +1,153 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.DashboardAppointment;
+import com.project.back_end.models.DoctorDaySchedule;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorDayScheduleRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Denormalized read model behind the doctor dashboard: one `DoctorDaySchedule` row per (doctorId, date) holding that
+// day's appointments, already ordered and shaped for rendering, so a dashboard refresh is one primary-key lookup.
+//    - After a booking, reschedule or cancellation commits, each affected day is recomputed from the `Appointment` table
+//      in its own transaction. The recompute first locks the doctor's row, so recomputes of one doctor run one at a time
+//      and each reads everything committed before it; the last one to run always leaves the day up to date.
+//    - A day read before it has a row (new dates, or after a rebuild) is computed on the spot and stored, "[]" included.
+//      The miss path takes no lock and holds no transaction open, and stores its result only if no row appeared meanwhile: a
+//      recompute that ran in between read later data and must win.
+//    - Deleting a doctor deletes their rows. `rebuild` regenerates every row from the appointment table.
+//    - Computations on a read miss are counted in `doctor.day.schedule.misses`.
+@Component
+public class DailyScheduleReadModel {
+    private final DoctorDayScheduleRepository scheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final ObjectMapper objectMapper;
+    private final JavaType rowsType;
+    private final TransactionTemplate ownTransaction;
+    private final Counter misses;
+
+    public DailyScheduleReadModel(DoctorDayScheduleRepository scheduleRepository, AppointmentRepository appointmentRepository,
+            DoctorRepository doctorRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.scheduleRepository = scheduleRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.objectMapper = objectMapper;
+        this.rowsType = objectMapper.getTypeFactory().constructCollectionType(List.class, DashboardAppointment.class);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.misses = Counter.builder("doctor.day.schedule.misses").register(meterRegistry);
+    }
+
+    // The doctor's appointments on the date, in time order.
+    public List<DashboardAppointment> appointments(Long doctorId, LocalDate date) {
+        DoctorDaySchedule row = scheduleRepository.findById(new DoctorDaySchedule.Key(doctorId, date)).orElse(null);
+        if (row != null) {
+            return decode(row.getAppointments());
+        }
+        misses.increment();
+        List<DashboardAppointment> appointments = appointmentRepository.findDashboardAppointments(doctorId,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        scheduleRepository.insertIfAbsent(doctorId, date, encode(appointments));
+        return appointments;
+    }
+
+    // Recomputes the doctor's rows for the dates once the current transaction commits.
+    public void recordChange(Long doctorId, Collection<LocalDate> dates) {
+        List<LocalDate> distinct = new ArrayList<>(new LinkedHashSet<>(dates));
+        afterCommit(() -> distinct.forEach(date -> {
+            try {
+                refresh(doctorId, date);
+            } catch (Exception e) {
+                e.printStackTrace(); // The row stays stale until the next change of that day or a rebuild
+            }
+        }));
+    }
+
+    public void removeDoctor(Long doctorId) {
+        scheduleRepository.deleteAllByDoctorId(doctorId);
+    }
+
+    // Regenerates the whole read model from the appointment table, one doctor per transaction; returns the rows written.
+    public long rebuild() {
+        scheduleRepository.deleteOrphans();
+        long written = 0;
+        for (Long doctorId : doctorRepository.findAllIds()) {
+            written += ownTransaction.execute(status -> {
+                if (doctorRepository.lockForBooking(doctorId) == null) {
+                    return 0;
+                }
+                Map<LocalDate, List<DashboardAppointment>> days = new LinkedHashMap<>();
+                for (DashboardAppointment appointment : appointmentRepository.findDashboardAppointmentsByDoctorId(doctorId)) {
+                    days.computeIfAbsent(appointment.appointmentTime().toLocalDate(), date -> new ArrayList<>()).add(appointment);
+                }
+                scheduleRepository.deleteAllByDoctorId(doctorId);
+                List<DoctorDaySchedule> rows = new ArrayList<>(days.size());
+                days.forEach((date, appointments) -> rows.add(new DoctorDaySchedule(doctorId, date, encode(appointments))));
+                scheduleRepository.saveAll(rows);
+                return rows.size();
+            });
+        }
+        return written;
+    }
+
+    private void refresh(Long doctorId, LocalDate date) {
+        ownTransaction.executeWithoutResult(status -> {
+            if (doctorRepository.lockForBooking(doctorId) == null) {
+                return; // Deleted doctor; nothing to store
+            }
+            List<DashboardAppointment> appointments = appointmentRepository.findDashboardAppointments(doctorId,
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+            scheduleRepository.upsert(doctorId, date, encode(appointments));
+        });
+    }
+
+    private String encode(List<DashboardAppointment> appointments) {
+        try {
+            return objectMapper.writeValueAsString(appointments);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<DashboardAppointment> decode(String appointments) {
+        try {
+            return objectMapper.readValue(appointments, rowsType);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
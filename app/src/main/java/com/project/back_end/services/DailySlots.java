@@ -0,0 +1,185 @@
+package com.project.back_end.services;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable bitmap of slot start times within one day, at a fixed 15-minute granularity.
+//    - The 96 quarter-hours of a day fit in two longs: bits 0-63 in `low` (00:00-15:45) and bits 0-31 in `high` (16:00-23:45).
+//    - Availability, conflicts and AM/PM filtering become bitwise operations instead of string comparisons.
+//    - Slot strings keep the existing "HH:mm-HH:mm" format; only their start time is encoded, rounded down to the quarter-hour.
+public final class DailySlots {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final DailySlots EMPTY = new DailySlots(0L, 0L);
+    // 00:00-11:45 is AM (indices 0-47); 12:00-23:45 is PM (indices 48-95)
+    public static final DailySlots AM = range(0, SLOTS_PER_DAY / 2);
+    public static final DailySlots PM = range(SLOTS_PER_DAY / 2, SLOTS_PER_DAY);
+
+    private final long low;
+    private final long high;
+
+    private DailySlots(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    // Builds a bitmap of the start times of slot strings such as "09:00-10:00"; malformed entries are ignored.
+    public static DailySlots ofSlotStrings(List<String> slots) {
+        if (slots == null) {
+            return EMPTY;
+        }
+        long low = 0L;
+        long high = 0L;
+        for (String slot : slots) {
+            int index = slotIndex(slot);
+            if (index < 0) {
+                continue;
+            }
+            if (index < 64) {
+                low |= 1L << index;
+            } else {
+                high |= 1L << (index - 64);
+            }
+        }
+        return new DailySlots(low, high);
+    }
+
+    // Returns the index of the quarter-hour containing the time.
+    public static int slotIndex(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    // Returns the index of the quarter-hour a slot string starts in, or -1 if it does not start with "HH:mm".
+    public static int slotIndex(String slot) {
+        if (slot == null || slot.length() < 5 || slot.charAt(2) != ':') {
+            return -1;
+        }
+        int hour = twoDigits(slot, 0);
+        int minute = twoDigits(slot, 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        return (hour * 60 + minute) / SLOT_MINUTES;
+    }
+
+    // Returns the start time of the quarter-hour at `index`.
+    public static LocalTime startOf(int index) {
+        return LocalTime.ofSecondOfDay((long) index * SLOT_MINUTES * 60);
+    }
+
+    public static DailySlots range(int fromInclusive, int toExclusive) {
+        DailySlots slots = EMPTY;
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            slots = slots.with(i);
+        }
+        return slots;
+    }
+
+    public DailySlots with(int index) {
+        if (index < 0 || index >= SLOTS_PER_DAY) {
+            return this;
+        }
+        return index < 64
+                ? new DailySlots(low | (1L << index), high)
+                : new DailySlots(low, high | (1L << (index - 64)));
+    }
+
+    public DailySlots with(LocalTime time) {
+        return with(slotIndex(time));
+    }
+
+    public boolean contains(int index) {
+        if (index < 0 || index >= SLOTS_PER_DAY) {
+            return false;
+        }
+        return index < 64 ? (low & (1L << index)) != 0 : (high & (1L << (index - 64))) != 0;
+    }
+
+    // True only if `time` is exactly the start of a set slot (09:00 for the 09:00 slot, not 09:05 or 09:00:30).
+    public boolean contains(LocalTime time) {
+        return isSlotStart(time) && contains(slotIndex(time));
+    }
+
+    public static boolean isSlotStart(LocalTime time) {
+        return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    // Returns the first set index at or after `fromIndex`, or -1 if there is none.
+    public int nextSlot(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (fromIndex < 64) {
+            long bits = low & (-1L << fromIndex);
+            if (bits != 0) {
+                return Long.numberOfTrailingZeros(bits);
+            }
+            fromIndex = 64;
+        }
+        if (fromIndex < SLOTS_PER_DAY) {
+            long bits = high & (-1L << (fromIndex - 64));
+            if (bits != 0) {
+                return 64 + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    public DailySlots and(DailySlots other) {
+        return new DailySlots(low & other.low, high & other.high);
+    }
+
+    public DailySlots or(DailySlots other) {
+        return new DailySlots(low | other.low, high | other.high);
+    }
+
+    public DailySlots andNot(DailySlots other) {
+        return new DailySlots(low & ~other.low, high & ~other.high);
+    }
+
+    public boolean intersects(DailySlots other) {
+        return (low & other.low) != 0 || (high & other.high) != 0;
+    }
+
+    public boolean isEmpty() {
+        return low == 0L && high == 0L;
+    }
+
+    public int count() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    // Keeps the slot strings whose start time is set in this bitmap, preserving their original order and format.
+    public List<String> filter(List<String> slots) {
+        List<String> result = new ArrayList<>();
+        if (slots == null) {
+            return result;
+        }
+        for (String slot : slots) {
+            if (contains(slotIndex(slot))) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DailySlots other && low == other.low && high == other.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low) * 31 + Long.hashCode(high);
+    }
+
+    private static int twoDigits(String value, int offset) {
+        char tens = value.charAt(offset);
+        char ones = value.charAt(offset + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
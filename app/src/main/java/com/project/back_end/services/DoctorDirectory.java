@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Versioned cache of the serialized doctor directory (`GET /doctor`), which is read on every landing page and dashboard
+// load but changes only a few times a day.
+//    - Doctor writes (`DoctorService`) and schedule writes (`ScheduleService`, since they change `availableTimes`) bump the
+//      version once their transaction commits.
+//    - The directory is loaded and encoded to JSON once per version; until the next bump every request is served the same
+//      bytes. The version is read before loading, so a load racing with a write is cached under the old version and
+//      replaced on the next request.
+//    - The ETag is a digest of the bytes, so it stays valid across restarts and instances serving the same data.
+@Component
+public class DoctorDirectory {
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong();
+    private final Counter encodings;
+    private volatile Encoded cached;
+
+    public DoctorDirectory(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.encodings = Counter.builder("doctor.directory.encodings").register(meterRegistry);
+    }
+
+    // Returns the encoded directory of the current version, encoding what `loader` returns if it is not cached yet.
+    public Encoded current(Supplier<Object> loader) {
+        Encoded encoded = cached;
+        if (encoded != null && encoded.version() == version.get()) {
+            return encoded;
+        }
+        synchronized (this) {
+            long loading = version.get();
+            encoded = cached;
+            if (encoded != null && encoded.version() == loading) {
+                return encoded; // Encoded by the request we waited for
+            }
+            try {
+                byte[] body = objectMapper.writeValueAsBytes(loader.get());
+                encoded = new Encoded(loading, body, etag(body));
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not encode the doctor directory", e);
+            }
+            encodings.increment();
+            cached = encoded;
+            return encoded;
+        }
+    }
+
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    private static String etag(byte[] body) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+        return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+
+    public record Encoded(long version, byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorSearchEntry;
+import com.project.back_end.DTO.DoctorSuggestions;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// In-memory substring search over doctor names, replacing `LIKE '%name%'` scans of the doctor table.
+//    - Names are normalised (lower case, accents stripped) and split into trigrams; each trigram maps to the ids of the
+//      doctors whose name contains it. A query intersects the postings of its trigrams, starting with the rarest, and
+//      confirms each candidate with a real substring check. Queries shorter than three characters scan the entries.
+//    - Specialty filters compare normalised specialties for equality, like the queries they replace.
+//    - Built from a projection of all doctors on startup (or on first use, whichever comes first) and updated after
+//      doctor saves, updates and deletes commit. A rebuild fills fresh maps and publishes them with one volatile write,
+//      so searches running meanwhile keep seeing the complete previous index.
+//    - Also serves autocomplete: after every change, two immutable `PrefixIndex` snapshots are rebuilt (distinct names and
+//      distinct specialties, weighted by how many doctors share them) and swapped in, so lookups never lock or query.
+@Component
+public class DoctorSearchIndex {
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final DoctorRepository doctorRepository;
+    private volatile Index index = Index.empty();
+    private volatile boolean loaded;
+    private volatile Suggestions suggestions = new Suggestions(PrefixIndex.EMPTY, PrefixIndex.EMPTY);
+
+    public DoctorSearchIndex(DoctorRepository doctorRepository, MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        Gauge.builder("doctor.search.size", this, searchIndex -> searchIndex.index.entries().size()).register(meterRegistry);
+    }
+
+    // Ids of the doctors whose name contains `name` (ignoring case and accents) and, if given, whose specialty equals
+    // `specialty`, ordered by name. A blank name matches every doctor.
+    public List<Long> search(String name, String specialty) {
+        ensureLoaded();
+        String query = normalize(name);
+        String wantedSpecialty = specialty == null ? null : normalize(specialty);
+        Index current = index;
+        List<Entry> matches = new ArrayList<>();
+        for (Long id : candidates(current, query)) {
+            Entry entry = current.entries().get(id);
+            if (entry != null && entry.name().contains(query)
+                    && (wantedSpecialty == null || entry.specialty().equals(wantedSpecialty))) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.comparing(Entry::name).thenComparing(Entry::id));
+        return matches.stream().map(Entry::id).toList();
+    }
+
+    // Up to `limit` names and up to `limit` specialties with a word starting with `prefix` (ignoring case and accents),
+    // the ones shared by the most doctors first.
+    public DoctorSuggestions suggest(String prefix, int limit) {
+        ensureLoaded();
+        String query = normalize(prefix);
+        Suggestions current = suggestions;
+        return new DoctorSuggestions(current.names().top(query, limit), current.specialties().top(query, limit));
+    }
+
+    public void put(Long id, String name, String specialty) {
+        Entry entry = new Entry(id, normalize(name), normalize(specialty), name, specialty);
+        afterCommit(() -> {
+            add(entry);
+            refreshSuggestions();
+        });
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            unindex(id);
+            refreshSuggestions();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        try {
+            List<DoctorSearchEntry> doctors = doctorRepository.findSearchEntries();
+            Index fresh = Index.empty();
+            for (DoctorSearchEntry doctor : doctors) {
+                fresh.add(new Entry(doctor.id(), normalize(doctor.name()), normalize(doctor.specialty()), doctor.name(), doctor.specialty()));
+            }
+            index = fresh;
+            refreshSuggestions();
+            loaded = true;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    // The ids that can contain the query: the intersection of its trigram postings, or every id for short queries.
+    private static Iterable<Long> candidates(Index index, String query) {
+        List<String> grams = grams(query);
+        if (grams.isEmpty()) {
+            return index.entries().keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Long> ids = index.postings().get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> result = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    // Writers are serialised (with each other and with `rebuild`); readers never lock and re-check every candidate
+    // against the entries of the index they started with.
+    private synchronized void add(Entry entry) {
+        index.add(entry);
+    }
+
+    private synchronized void unindex(Long id) {
+        index.remove(id);
+    }
+
+    // Rebuilds the autocomplete snapshots from the current entries; serialised so the last one published is the newest.
+    private synchronized void refreshSuggestions() {
+        Map<String, PrefixIndex.Weighted> names = new HashMap<>();
+        Map<String, PrefixIndex.Weighted> specialties = new HashMap<>();
+        for (Entry entry : index.entries().values()) {
+            if (entry.displayName() != null) {
+                names.merge(entry.name(), new PrefixIndex.Weighted(entry.displayName().trim(), 1), PrefixIndex.Weighted::plus);
+            }
+            if (entry.displaySpecialty() != null) {
+                specialties.merge(entry.specialty(), new PrefixIndex.Weighted(entry.displaySpecialty().trim(), 1), PrefixIndex.Weighted::plus);
+            }
+        }
+        suggestions = new Suggestions(PrefixIndex.of(names), PrefixIndex.of(specialties));
+    }
+
+    private static List<String> grams(String value) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Entry(Long id, String name, String specialty, String displayName, String displaySpecialty) {
+    }
+
+    private record Suggestions(PrefixIndex names, PrefixIndex specialties) {
+    }
+
+    private record Index(Map<Long, Entry> entries, Map<String, Set<Long>> postings) {
+        static Index empty() {
+            return new Index(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        void add(Entry entry) {
+            remove(entry.id());
+            entries.put(entry.id(), entry);
+            for (String gram : grams(entry.name())) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+        }
+
+        void remove(Long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : grams(previous.name())) {
+                postings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+}
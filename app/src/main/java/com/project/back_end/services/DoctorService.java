@@ -2,15 +2,29 @@ package com.project.back_end.services;
 
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 
+import com.project.back_end.DTO.BookedSlot;
+import com.project.back_end.DTO.DoctorCursor;
+import com.project.back_end.DTO.DoctorPage;
+import com.project.back_end.DTO.DoctorSuggestions;
+import com.project.back_end.DTO.DoctorSummary;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.SlotSuggestion;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 import org.springframework.http.ResponseEntity;
@@ -29,42 +43,196 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final PrincipalRegistry principalRegistry;
+    private final IdentityCache identityCache;
+    private final PasswordService passwordService;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotHoldRegistry slotHolds;
+    private final ScheduleService scheduleService;
+    private final DoctorSearchIndex searchIndex;
+    private final DoctorDirectory doctorDirectory;
+    private final DailyScheduleReadModel dailySchedules;
 
-    public DoctorService(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository, TokenService tokenService) {
+    public DoctorService(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository, TokenService tokenService, PrincipalRegistry principalRegistry, IdentityCache identityCache, PasswordService passwordService, AvailabilityIndex availabilityIndex, SlotHoldRegistry slotHolds, ScheduleService scheduleService, DoctorSearchIndex searchIndex, DoctorDirectory doctorDirectory, DailyScheduleReadModel dailySchedules) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.principalRegistry = principalRegistry;
+        this.identityCache = identityCache;
+        this.passwordService = passwordService;
+        this.availabilityIndex = availabilityIndex;
+        this.slotHolds = slotHolds;
+        this.scheduleService = scheduleService;
+        this.searchIndex = searchIndex;
+        this.doctorDirectory = doctorDirectory;
+        this.dailySchedules = dailySchedules;
     }
     // 3. **Add @Transactional Annotation for Methods that Modify or Fetch Database Data**:
-    //    - Methods like `getDoctorAvailability`, `getDoctors`, `findDoctorByName`, `filterDoctorsBy*` should be annotated with `@Transactional`.
+    //    - Methods like `getDoctorAvailability`, `getDoctors`, `filterDoctors` should be annotated with `@Transactional`.
     //    - The `@Transactional` annotation ensures that database operations are consistent and wrapped in a single transaction.
     //    - Instruction: Add the `@Transactional` annotation above the methods that perform database operations or queries.
     @Transactional
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId).orElse(null);
-        if (doctor == null) {
-            return List.of(); // Return empty list if doctor not found
-        }
-        List<Appointment> bookedTimes = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
-        List<String> availableTimes = new ArrayList<>(doctor.getAvailableTimes());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        for (Appointment appointment : bookedTimes) {
-            String bookedStart = appointment.getAppointmentTime().toLocalTime().format(formatter);
-            availableTimes.removeIf(slot -> slot.startsWith(bookedStart));
-        }
-        return availableTimes;
+        return availabilityIndex.freeSlots(doctorId, date); // Empty list if doctor not found
     }
     // 4. **getDoctorAvailability Method**:
     //    - Retrieves the available time slots for a specific doctor on a particular date and filters out already booked slots.
     //    - The method fetches all appointments for the doctor on the given date and calculates the availability by comparing against booked slots.
+    //    - Scheduled and booked slots are held as `DailySlots` bitmaps, so removing booked slots is a single bitwise operation.
+    //    - Both are served from the `AvailabilityIndex`, which only queries the database when an entry is cold or stale.
     //    - Instruction: Ensure that the time slots are properly formatted and the available slots are correctly filtered.
+    @Transactional(readOnly = true)
+    public Map<Long, Map<LocalDate, List<String>>> getDoctorAvailability(Set<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, List<String>>> result = new LinkedHashMap<>();
+        List<Doctor> doctors = doctorRepository.findAllById(doctorIds);
+        if (doctors.isEmpty()) {
+            return result;
+        }
+        Map<Long, Map<LocalDate, DailySlots>> booked = findBlockedSlots(doctorIds, from, to);
+        Map<Long, WeeklySchedule> schedules = availabilityIndex.schedules(doctors.stream().map(Doctor::getId).toList());
+        for (Doctor doctor : doctors) {
+            WeeklySchedule schedule = schedules.getOrDefault(doctor.getId(), WeeklySchedule.EMPTY);
+            Map<LocalDate, DailySlots> bookedByDay = booked.getOrDefault(doctor.getId(), Map.of());
+            Map<LocalDate, List<String>> days = new LinkedHashMap<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                DailySlots free = schedule.slotsOn(day).andNot(bookedByDay.getOrDefault(day, DailySlots.EMPTY));
+                days.put(day, WeeklySchedule.slotStrings(free));
+            }
+            result.put(doctor.getId(), days);
+        }
+        return result;
+    }
+    // **getDoctorAvailability (range) Method**:
+    //    - Returns the free slots of several doctors over a span of days, grouped by doctor and then by day.
+    //    - All bookings in the span come from a single `findBookedSlots` query projected to (doctorId, start, duration),
+    //      instead of one join-fetch query per doctor per day.
+    @Transactional(readOnly = true)
+    public List<SlotSuggestion> findEarliestSlots(String specialty, String amOrPm, LocalDate from, LocalDate to, int limit) {
+        DailySlots period = DailySlots.range(0, DailySlots.SLOTS_PER_DAY);
+        if ("AM".equalsIgnoreCase(amOrPm)) {
+            period = DailySlots.AM;
+        } else if ("PM".equalsIgnoreCase(amOrPm)) {
+            period = DailySlots.PM;
+        }
+        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        if (doctors.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        Map<Long, Map<LocalDate, DailySlots>> booked = findBlockedSlots(doctorIds, from, to);
+        Map<Long, WeeklySchedule> schedules = availabilityIndex.schedules(doctorIds);
+        LocalDateTime now = LocalDateTime.now();
+        PriorityQueue<SlotCursor> queue = new PriorityQueue<>();
+        for (Doctor doctor : doctors) {
+            SlotCursor cursor = new SlotCursor(doctor, schedules.getOrDefault(doctor.getId(), WeeklySchedule.EMPTY), period,
+                    booked.getOrDefault(doctor.getId(), Map.of()), from, to, now);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        List<SlotSuggestion> suggestions = new ArrayList<>();
+        while (suggestions.size() < limit && !queue.isEmpty()) {
+            SlotCursor cursor = queue.poll();
+            suggestions.add(cursor.suggestion());
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return suggestions;
+    }
+    // **findEarliestSlots Method**:
+    //    - Returns the `limit` earliest free slots across all doctors of a specialty within [from, to], optionally AM/PM only.
+    //    - Each doctor contributes a cursor that walks its free slots in time order; a priority queue merges the cursors,
+    //      so only as many slots as requested are ever materialized.
+    //    - Bookings for all doctors in the window come from one projected `findBookedSlots` query; past slots are skipped.
+
+    // Slot starts overlapping a booking (of any length, including the previous evening's that run past midnight), plus
+    // slots currently held by a patient, since none of them can be offered to anyone else.
+    private Map<Long, Map<LocalDate, DailySlots>> findBlockedSlots(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, DailySlots>> blocked = slotHolds.heldSlots(doctorIds, from, to);
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(doctorIds,
+                from.atStartOfDay().minusMinutes(Appointment.MAX_DURATION_MINUTES), to.plusDays(1).atStartOfDay())) {
+            LocalDate day = slot.appointmentTime().toLocalDate();
+            for (; BookedIntervals.minuteOf(day, slot.appointmentTime()) + slot.minutes() > 0 && !day.isAfter(to); day = day.plusDays(1)) {
+                if (day.isBefore(from)) {
+                    continue;
+                }
+                DailySlots slots = BookedIntervals.EMPTY.with(BookedIntervals.minuteOf(day, slot.appointmentTime()), slot.minutes())
+                        .blockedStarts(WeeklySchedule.APPOINTMENT_MINUTES);
+                blocked.computeIfAbsent(slot.doctorId(), id -> new HashMap<>()).merge(day, slots, DailySlots::or);
+            }
+        }
+        return blocked;
+    }
+
+    // Walks one doctor's free slots in chronological order; ordered by the slot it currently points at.
+    private static final class SlotCursor implements Comparable<SlotCursor> {
+        private final Doctor doctor;
+        private final WeeklySchedule schedule;
+        private final DailySlots period;
+        private final Map<LocalDate, DailySlots> booked;
+        private final LocalDate to;
+        private final LocalDateTime now;
+        private LocalDate day;
+        private int index = -1;
+
+        SlotCursor(Doctor doctor, WeeklySchedule schedule, DailySlots period, Map<LocalDate, DailySlots> booked, LocalDate from, LocalDate to, LocalDateTime now) {
+            this.doctor = doctor;
+            this.schedule = schedule;
+            this.period = period;
+            this.booked = booked;
+            this.to = to;
+            this.now = now;
+            this.day = from;
+        }
+
+        // Moves to the next free slot; returns false once the window is exhausted.
+        boolean advance() {
+            while (!day.isAfter(to)) {
+                DailySlots free = schedule.slotsOn(day).and(period).andNot(booked.getOrDefault(day, DailySlots.EMPTY));
+                int fromIndex = index + 1;
+                if (day.equals(now.toLocalDate())) {
+                    fromIndex = Math.max(fromIndex, DailySlots.slotIndex(now.toLocalTime()) + 1);
+                } else if (day.isBefore(now.toLocalDate())) {
+                    fromIndex = DailySlots.SLOTS_PER_DAY;
+                }
+                int next = free.nextSlot(fromIndex);
+                if (next >= 0) {
+                    index = next;
+                    return true;
+                }
+                day = day.plusDays(1);
+                index = -1;
+            }
+            return false;
+        }
+
+        LocalDateTime start() {
+            return day.atTime(DailySlots.startOf(index));
+        }
+
+        SlotSuggestion suggestion() {
+            return new SlotSuggestion(doctor.getId(), doctor.getName(), doctor.getSpecialty(), day, WeeklySchedule.slotString(index), start());
+        }
+
+        @Override
+        public int compareTo(SlotCursor other) {
+            int byTime = start().compareTo(other.start());
+            return byTime != 0 ? byTime : doctor.getId().compareTo(other.doctor.getId());
+        }
+    }
     @Transactional
     public int saveDoctor(Doctor doctor) {
         try {
-            if (doctorRepository.findByEmail(doctor.getEmail()) != null) {
+            if (identityCache.findDoctorByEmail(doctor.getEmail()) != null) {
                 return -1; // Conflict: Doctor with the same email already exists
             }
+            doctor.setPassword(passwordService.hash(doctor.getPassword()));
             doctorRepository.save(doctor);
+            scheduleService.replaceWeekly(doctor.getId(), ScheduleService.everyDay(doctor.getAvailableTimes()));
+            identityCache.evictDoctor(doctor.getId(), doctor.getEmail());
+            searchIndex.put(doctor.getId(), doctor.getName(), doctor.getSpecialty());
+            doctorDirectory.bump();
             return 1; // Success
         } catch (Exception e) {
             e.printStackTrace();
@@ -81,7 +249,15 @@ public class DoctorService {
             if (!doctorRepository.existsById(doctor.getId())) {
                 return -1; // Doctor not found
             }
+            doctor.setPassword(passwordService.hashIfNeeded(doctor.getPassword()));
             doctorRepository.save(doctor);
+            if (doctor.getAvailableTimes() != null) {
+                scheduleService.replaceWeekly(doctor.getId(), ScheduleService.everyDay(doctor.getAvailableTimes()));
+            }
+            identityCache.evictDoctor(doctor.getId(), doctor.getEmail());
+            availabilityIndex.invalidateDoctor(doctor.getId());
+            searchIndex.put(doctor.getId(), doctor.getName(), doctor.getSpecialty());
+            doctorDirectory.bump();
             return 1; // Success
         } catch (Exception e) {
             e.printStackTrace();
@@ -91,13 +267,14 @@ public class DoctorService {
     // 6. **updateDoctor Method**:
     //    - Updates an existing doctor's details in the database. If the doctor doesn't exist, it returns `-1`.
     //    - Instruction: Make sure that the doctor exists before attempting to save the updated record and handle any errors properly.
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> getDoctors() {
-        return doctorRepository.findAll();
+        return withAvailableTimes(doctorRepository.findAll());
     }
     // 7. **getDoctors Method**:
     //    - Fetches all doctors from the database. It is marked with `@Transactional` to ensure that the collection is properly loaded.
-    //    - Instruction: Ensure that the collection is eagerly loaded, especially if dealing with lazy-loaded relationships (e.g., available times). 
+    //    - `availableTimes` is filled from the doctors' schedules (`withAvailableTimes`) rather than from a per-doctor collection,
+    //      so listing N doctors costs one doctor query plus at most two schedule queries keyed by an id IN list, not N + 1.
     @Transactional
     public int deleteDoctor(Long doctorId) {
         try {
@@ -105,7 +282,14 @@ public class DoctorService {
                 return -1; // Doctor not found
             }
             appointmentRepository.deleteAllByDoctorId(doctorId); // Delete associated appointments
+            dailySchedules.removeDoctor(doctorId); // And their dashboard read model
+            scheduleService.deleteSchedule(doctorId); // Delete weekly blocks and exceptions
             doctorRepository.deleteById(doctorId); // Delete the doctor
+            identityCache.evictDoctor(doctorId, null);
+            availabilityIndex.invalidateDoctor(doctorId);
+            searchIndex.remove(doctorId);
+            doctorDirectory.bump();
+            principalRegistry.deactivate("doctor", doctorId); // Reject tokens already issued to this doctor
             return 1; // Success
         } catch (Exception e) {
             e.printStackTrace();
@@ -118,140 +302,85 @@ public class DoctorService {
     //    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
     @Transactional
     public ResponseEntity<Map<String, String>> validateDoctor(Login login) {
-        Doctor doctor = doctorRepository.findByEmail(login.getEmail());
+        Doctor doctor = identityCache.findDoctorByEmail(login.getEmail());
         if (doctor == null) {
             return ResponseEntity.status(404).body(Map.of("message", "Doctor not found"));
         }
-        if (!doctor.getPassword().equals(login.getPassword())) {
+        if (!passwordService.matches(login.getPassword(), doctor.getPassword())) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid password"));
         }
-        String token = tokenService.generateToken(login.getEmail());
+        if (passwordService.needsRehash(doctor.getPassword())) {
+            doctorRepository.updatePassword(doctor.getId(), passwordService.hash(login.getPassword()));
+            identityCache.evictDoctor(doctor.getId(), doctor.getEmail());
+        }
+        String token = tokenService.generateToken(doctor.getEmail(), "doctor", doctor.getId());
         return ResponseEntity.ok(Map.of("token", token));
     }
     // 9. **validateDoctor Method**:
-    //    - Validates a doctor's login by checking if the email and password match an existing doctor record.
+    //    - Validates a doctor's login by checking the password against the stored hash of an existing doctor record.
+    //    - Legacy plaintext passwords (and hashes with an outdated cost) are rehashed on successful login.
     //    - It generates a token for the doctor if the login is successful, otherwise returns an error message.
     //    - Instruction: Make sure to handle invalid login attempts and password mismatches properly with error responses.
-    @Transactional
-    public Map<String, Object> findDoctorByName(String name) {
-        List<Doctor> doctor = doctorRepository.findByNameLike(name);
-        if (doctor == null) {
-            return Map.of("message", "No doctors found with the given name");
+    @Transactional(readOnly = true)
+    public List<Doctor> filterDoctors(String name, String specialty, String amOrPm) {
+        Specification<Doctor> filter = doctorFilter(name, specialty, amOrPm);
+        if (filter == null) {
+            return new ArrayList<>();
         }
-        return Map.of("doctors", doctor);
+        return withAvailableTimes(doctorRepository.findAll(filter, Sort.by("name", "id")));
     }
-    // 10. **findDoctorByName Method**:
-    //    - Finds doctors based on partial name matching and returns the list of doctors with their available times.
-    //    - This method is annotated with `@Transactional` to ensure that the database query and data retrieval are properly managed within a transaction.
-    //    - Instruction: Ensure that available times are eagerly loaded for the doctors.
-    @Transactional
-    public Map<String, Object> filterDoctorsByNameSpecialtyAndTime(String name, String specialty, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
-        if (doctors.isEmpty()) {
-            return Map.of("message", "No doctors found with the given name and specialty");
+    // 10. **filterDoctors Method**:
+    //    - Filters doctors by any combination of partial name, specialty (case-insensitive) and time of day ("AM"/"PM"),
+    //      and returns the matching doctors, ordered by name, with their available times. No criteria returns every doctor.
+    //    - All criteria are applied by one query built from `DoctorSpecifications`:
+    //      - Name matching is served by the in-memory `DoctorSearchIndex` and becomes an `id IN (...)` condition.
+    //      - Time of day is an EXISTS check on the weekly blocks' stored `offersAm`/`offersPm` flags, so doctors are no
+    //        longer loaded (all of them, when only a time is given) to be filtered in Java.
+    //    - Replaces the former per-combination `findDoctorByName` and `filterDoctor*` methods.
+    @Transactional(readOnly = true)
+    public DoctorPage getDoctorPage(String name, String specialty, String amOrPm, DoctorCursor after, int limit) {
+        Specification<Doctor> filter = doctorFilter(name, specialty, amOrPm);
+        if (filter == null) {
+            return new DoctorPage(List.of(), null);
         }
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
-        if (filteredDoctors.isEmpty()) {
-            return Map.of("message", "No doctors available in the specified time period");
+        List<DoctorSummary> doctors = doctorRepository.findSummaries(filter, after, limit + 1);
+        if (doctors.size() <= limit) {
+            return new DoctorPage(doctors, null);
         }
-        return Map.of("doctors", filteredDoctors);
-    }
-    // 11. **filterDoctorsByNameSpecialtyandTime Method**:
-    //    - Filters doctors based on their name, specialty, and availability during a specific time (AM/PM).
-    //    - The method fetches doctors matching the name and specialty criteria, then filters them based on their availability during the specified time period.
-    //    - Instruction: Ensure proper filtering based on both the name and specialty as well as the specified time period.
-    private List<Doctor> filterDoctorByTime(List<Doctor> doctors, String amOrPm) {
-        return doctors.stream().filter(doctor -> {
-            List<String> availableTimes = doctor.getAvailableTimes();
-            if (amOrPm.equalsIgnoreCase("AM")) {
-                return availableTimes.stream().anyMatch(time -> {
-                    String[] parts = time.split(":");
-                    int hour = Integer.parseInt(parts[0]);
-                    return hour >= 0 && hour < 12;
-                });
-            } else if (amOrPm.equalsIgnoreCase("PM")) {
-                return availableTimes.stream().anyMatch(time -> {
-                    String[] parts = time.split(":");
-                    int hour = Integer.parseInt(parts[0]);
-                    return hour >= 12 && hour < 24;
-                });
-            }
-            return false;
-        }).toList();
+        List<DoctorSummary> page = doctors.subList(0, limit);
+        return new DoctorPage(page, DoctorCursor.after(page.get(limit - 1)).encode());
     }
-    // 12. **filterDoctorByTime Method**:
-    //    - Filters a list of doctors based on whether their available times match the specified time period (AM/PM).
-    //    - This method processes a list of doctors and their available times to return those that fit the time criteria.
-    //    - Instruction: Ensure that the time filtering logic correctly handles both AM and PM time slots and edge cases.
-    @Transactional
-    public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findByNameLike(name);
-        if (doctors.isEmpty()) {
-            return Map.of("message", "No doctors found with the given name");
-        }
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
-        if (filteredDoctors.isEmpty()) {
-            return Map.of("message", "No doctors available in the specified time period");
-        }
-        return Map.of("doctors", filteredDoctors);
-    }
-    // 13. **filterDoctorByNameAndTime Method**:
-    //    - Filters doctors based on their name and the specified time period (AM/PM).
-    //    - Fetches doctors based on partial name matching and filters the results to include only those available during the specified time period.
-    //    - Instruction: Ensure that the method correctly filters doctors based on the given name and time of day (AM/PM).
-    @Transactional
-    public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specility) {
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specility);
-        if (doctors.isEmpty()) {
-            return Map.of("message", "No doctors found with the given name and specialty");
-        }
-        return Map.of("doctors", doctors);
-    }
-    // 14. **filterDoctorByNameAndSpecility Method**:
-    //    - Filters doctors by name and specialty.
-    //    - It ensures that the resulting list of doctors matches both the name (case-insensitive) and the specified specialty.
-    //    - Instruction: Ensure that both name and specialty are considered when filtering doctors.
-    @Transactional
-    public Map<String, Object> filterDoctorByTimeAndSpecility(String specility, String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specility);
-        if (doctors.isEmpty()) {
-            return Map.of("message", "No doctors found with the given specialty");
-        }
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
-        if (filteredDoctors.isEmpty()) {
-            return Map.of("message", "No doctors available in the specified time period");
-        }
-        return Map.of("doctors", filteredDoctors);
+    // 11. **getDoctorPage Method**:
+    //    - Returns one page of the doctors matching the same criteria as `filterDoctors`, as slim `DoctorSummary` rows
+    //      projected by the query instead of full entities with their weekly slots.
+    //    - Pages are keyed by the last (name, id) returned, so each page is a bounded index range scan however deep it is,
+    //      and doctors added or removed meanwhile do not shift later pages. One extra row is read to tell if there is a next page.
+
+    public DoctorSuggestions suggestDoctors(String prefix, int limit) {
+        return searchIndex.suggest(prefix, limit);
     }
-    // 15. **filterDoctorByTimeAndSpecility Method**:
-    //    - Filters doctors based on their specialty and availability during a specific time period (AM/PM).
-    //    - Fetches doctors based on the specified specialty and filters them based on their available time slots for AM/PM.
-    //    - Instruction: Ensure the time filtering is accurately applied based on the given specialty and time period (AM/PM).
-    @Transactional
-    public Map<String, Object> filterDoctorsBySpecility(String specility) {
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specility);
-        if (doctors.isEmpty()) {
-            return Map.of("message", "No doctors found with the given specialty");
+    // 12. **suggestDoctors Method**:
+    //    - Returns autocomplete suggestions (doctor names and specialties) for a typed prefix from the `DoctorSearchIndex`.
+    //    - Deliberately not transactional: it never reaches the database once the index is loaded.
+
+    // The query criteria for the filters, or null if the name matches no doctor at all.
+    private Specification<Doctor> doctorFilter(String name, String specialty, String amOrPm) {
+        List<Long> nameMatches = name == null ? null : searchIndex.search(name, specialty);
+        if (nameMatches != null && nameMatches.isEmpty()) {
+            return null;
         }
-        return Map.of("doctors", doctors);
+        return Specification.where(DoctorSpecifications.idIn(nameMatches))
+                .and(DoctorSpecifications.specialtyIs(specialty))
+                .and(DoctorSpecifications.availableDuring(amOrPm));
     }
-    // 16. **filterDoctorBySpecility Method**:
-    //    - Filters doctors based on their specialty.
-    //    - This method fetches all doctors matching the specified specialty and returns them.
-    //    - Instruction: Make sure the filtering logic works for case-insensitive specialty matching.
-    @Transactional
-    public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        List<Doctor> doctors = doctorRepository.findAll();
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
-        if (filteredDoctors.isEmpty()) {
-            return Map.of("message", "No doctors available in the specified time period");
+
+    // Fills the `availableTimes` view of each doctor with its weekly slots; schedules not cached yet are loaded in one batch.
+    private List<Doctor> withAvailableTimes(List<Doctor> doctors) {
+        Map<Long, WeeklySchedule> schedules = availabilityIndex.schedules(doctors.stream().map(Doctor::getId).toList());
+        for (Doctor doctor : doctors) {
+            doctor.setAvailableTimes(WeeklySchedule.slotStrings(schedules.getOrDefault(doctor.getId(), WeeklySchedule.EMPTY).weeklySlots()));
         }
-        return Map.of("doctors", filteredDoctors);
+        return doctors;
     }
-    // 17. **filterDoctorsByTime Method**:
-    //    - Filters all doctors based on their availability during a specific time period (AM/PM).
-    //    - The method checks all doctors' available times and returns those available during the specified time period.
-    //    - Instruction: Ensure proper filtering logic to handle AM/PM time periods.
 
-   
 }
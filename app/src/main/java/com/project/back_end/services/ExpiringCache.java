@@ -0,0 +1,97 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Small size-bounded, TTL'd in-process cache with hit/miss metrics.
+//    - Null values returned by the loader are not cached, so "not found" answers always go back to the database.
+//    - When the cache is full, expired entries are purged first and then arbitrary entries are dropped.
+//    - Invalidation bumps a generation counter for the key's stripe (every stripe for `invalidateIf`); a load only stores
+//      its value if that generation is unchanged, checked inside the map's `compute`, so a read that started before a
+//      write can never re-cache what it loaded once the write's invalidation has run.
+//    - Metrics are published as `<name>.hits`, `<name>.misses` and `<name>.size`.
+class ExpiringCache<K, V> {
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    ExpiringCache(String name, Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        FunctionCounter.builder(name + ".hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(name + ".misses", misses, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(name + ".size", entries, Map::size).register(meterRegistry);
+    }
+
+    V get(K key, Function<K, V> loader) {
+        if (key == null) {
+            return null;
+        }
+        Entry<V> entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.expiresAt > now) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        V value = loader.apply(key);
+        if (value != null && maxEntries > 0) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            Entry<V> loaded = new Entry<>(value, now + ttlMillis);
+            entries.compute(key, (k, current) -> generations.get(stripe) == generation ? loaded : current);
+        } else if (entry != null) {
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    void invalidate(K key) {
+        if (key != null) {
+            generations.incrementAndGet(stripe(key));
+            entries.remove(key);
+        }
+    }
+
+    // Matches on values, so any key may be affected: every stripe's generation moves on.
+    void invalidateIf(Predicate<V> predicate) {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Near-cache in front of the identity lookups used by login, token validation and most service methods:
+// `PatientRepository.findByEmail`, `DoctorRepository.findByEmail` and `AdminRepository.findByUsername`.
+//    - Entries are bounded in number and expire after `identity-cache.ttl-seconds`.
+//    - Writes to doctors and patients must call the matching `evict*` method. Eviction happens immediately and again
+//      once the surrounding transaction completes; each eviction also invalidates loads already in flight, so a read
+//      that fetched the pre-write row before the commit cannot store it afterwards.
+//    - Cached entities are detached; callers must treat them as read-only.
+@Component
+public class IdentityCache {
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final AdminRepository adminRepository;
+    private final ExpiringCache<String, Patient> patients;
+    private final ExpiringCache<String, Doctor> doctors;
+    private final ExpiringCache<String, Admin> admins;
+
+    public IdentityCache(PatientRepository patientRepository, DoctorRepository doctorRepository, AdminRepository adminRepository,
+            MeterRegistry meterRegistry,
+            @Value("${identity-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${identity-cache.max-entries:10000}") int maxEntries) {
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.adminRepository = adminRepository;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.patients = new ExpiringCache<>("identity.cache.patient", ttl, maxEntries, meterRegistry);
+        this.doctors = new ExpiringCache<>("identity.cache.doctor", ttl, maxEntries, meterRegistry);
+        this.admins = new ExpiringCache<>("identity.cache.admin", ttl, maxEntries, meterRegistry);
+    }
+
+    public Patient findPatientByEmail(String email) {
+        return patients.get(email, patientRepository::findByEmail);
+    }
+
+    public Doctor findDoctorByEmail(String email) {
+        return doctors.get(email, doctorRepository::findByEmail);
+    }
+
+    public Admin findAdminByUsername(String username) {
+        return admins.get(username, adminRepository::findByUsername);
+    }
+
+    public void evictAdmin(String username) {
+        runNowAndAfterCompletion(() -> admins.invalidate(username));
+    }
+
+    public void evictPatient(String email) {
+        runNowAndAfterCompletion(() -> patients.invalidate(email));
+    }
+
+    // Evicts by id as well as email so that an email change cannot leave the old address cached.
+    public void evictDoctor(Long id, String email) {
+        runNowAndAfterCompletion(() -> {
+            doctors.invalidate(email);
+            if (id != null) {
+                doctors.invalidateIf(doctor -> id.equals(doctor.getId()));
+            }
+        });
+    }
+
+    private void runNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
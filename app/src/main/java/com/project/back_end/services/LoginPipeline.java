@@ -0,0 +1,63 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Runs login requests (and their CPU-bound password hashing) on a dedicated, size-limited executor.
+//    - Controllers return the resulting `CompletableFuture`, so Tomcat request threads are released while the hash runs
+//      and a login burst cannot starve booking traffic.
+//    - The queue is bounded; when it is full the login is rejected immediately with 503 instead of piling up.
+//    - Queue depth, active threads and rejections are published as `login.executor.*` metrics.
+@Component
+public class LoginPipeline {
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public LoginPipeline(MeterRegistry meterRegistry,
+            @Value("${login.executor.threads:4}") int threads,
+            @Value("${login.executor.queue-capacity:200}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("login.executor.rejected").register(meterRegistry);
+        Gauge.builder("login.executor.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("login.executor.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    // Submits a login; `errorBody` builds the response body used when the login is rejected or fails unexpectedly.
+    public <B> CompletableFuture<ResponseEntity<B>> submit(Supplier<ResponseEntity<B>> login, Function<String, B> errorBody) {
+        try {
+            return CompletableFuture.supplyAsync(login, executor)
+                    .exceptionally(e -> ResponseEntity.status(500).body(errorBody.apply("An error occurred while processing the request")));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(503).body(errorBody.apply("Too many login attempts, please try again shortly")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.back_end.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+// Hashes and verifies user passwords with BCrypt.
+//    - The cost factor is tunable with `password.bcrypt-strength`; each +1 doubles the hashing time.
+//    - Rows created before hashing was introduced still hold plaintext passwords. `matches` accepts them (compared in
+//      constant time) and `needsRehash` reports them, so the login path can transparently migrate them to a hash.
+//    - Hashes created with a different cost factor are also reported by `needsRehash`, so changing the strength migrates
+//      existing rows on their next login.
+@Component
+public class PasswordService {
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final BCryptPasswordEncoder encoder;
+
+    public PasswordService(@Value("${password.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    public String hash(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    // Hashes the password unless it already is a BCrypt hash (e.g. an update that re-sends the stored value).
+    public String hashIfNeeded(String password) {
+        if (password == null || isHashed(password)) {
+            return password;
+        }
+        return hash(password);
+    }
+
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (isHashed(storedPassword)) {
+            return encoder.matches(rawPassword, storedPassword);
+        }
+        return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return storedPassword != null && (!isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword));
+    }
+
+    private static boolean isHashed(String password) {
+        return BCRYPT_PATTERN.matcher(password).matches();
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.back_end.services;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.project.back_end.repo.PatientRepository;
 import com.project.back_end.models.Patient;
@@ -7,11 +8,16 @@ import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import java.util.List;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.DTO.AppointmentCursor;
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentPage;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 
 // 1. **Add @Service Annotation**:
 //    - The `@Service` annotation is used to mark this class as a Spring service component. 
@@ -26,17 +32,28 @@ public class PatientService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final IdentityCache identityCache;
+    private final PasswordService passwordService;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final boolean deriveFromTime;
 
-    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository, TokenService tokenService) {
+    public PatientService(PatientRepository patientRepository, AppointmentRepository appointmentRepository, TokenService tokenService, IdentityCache identityCache, PasswordService passwordService, DoctorSearchIndex doctorSearchIndex,
+            @Value("${appointment-status.derive-from-time:true}") boolean deriveFromTime) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.identityCache = identityCache;
+        this.passwordService = passwordService;
+        this.doctorSearchIndex = doctorSearchIndex;
+        this.deriveFromTime = deriveFromTime;
     }
 
     @Transactional
     public int createPatient(Patient patient) {
         try {
+            patient.setPassword(passwordService.hash(patient.getPassword()));
             patientRepository.save(patient);
+            identityCache.evictPatient(patient.getEmail());
             return 1;
         } catch (Exception e) {
             e.printStackTrace();
@@ -44,18 +61,16 @@ public class PatientService {
         }
     }
     // 3. **createPatient Method**:
-    //    - Creates a new patient in the database. It saves the patient object using the `PatientRepository`.
+    //    - Creates a new patient in the database. It hashes the password and saves the patient object using the `PatientRepository`.
     //    - If the patient is successfully saved, the method returns `1`; otherwise, it logs the error and returns `0`.
     //    - Instruction: Ensure that error handling is done properly and exceptions are caught and logged appropriately.
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, AuthenticatedPrincipal principal) {
         try {
-            String email = tokenService.extractEmail(token);
-            if (email == null || email.isEmpty()) {
+            if (principal == null || !principal.hasRole("patient")) {
                 return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
             }
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null || !patient.getId().equals(id)) {
+            if (!principal.id().equals(id)) {
                 return ResponseEntity.status(403).body(Map.of("error", "Unauthorized access to patient data"));
             }
             List<Appointment> appointments = appointmentRepository.findByPatientId(id);
@@ -74,15 +89,18 @@ public class PatientService {
     @Transactional
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         try {
-            int status;
-            if (condition.equalsIgnoreCase("future")) {
-                status = 0; // Future appointments
-            } else if (condition.equalsIgnoreCase("past")) {
-                status = 1; // Past appointments
-            } else {
+            Integer status = statusOf(condition);
+            if (status == null) {
                 return ResponseEntity.status(400).body(Map.of("error", "Invalid condition. Use 'past' or 'future'."));
             }
-            List<Appointment> appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, status);
+            List<Appointment> appointments;
+            if (!deriveFromTime) {
+                appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, status);
+            } else if (status == Appointment.STATUS_SCHEDULED) {
+                appointments = appointmentRepository.findByPatientIdAndAppointmentTimeFrom(id, LocalDateTime.now());
+            } else {
+                appointments = appointmentRepository.findByPatientIdAndAppointmentTimeBefore(id, LocalDateTime.now());
+            }
             List<AppointmentDTO> appointmentDTOs = appointments.stream().map(this::toDto).toList(); 
             return ResponseEntity.ok(Map.of("appointments", appointmentDTOs));
         } catch (Exception e) {
@@ -92,7 +110,9 @@ public class PatientService {
     }
     // 5. **filterByCondition Method**:
     //    - Filters appointments for a patient based on the condition (e.g., "past" or "future").
-    //    - Retrieves appointments with a specific status (0 for future, 1 for past) for the patient.
+    //    - Retrieves appointments with a specific status (0 for future, 1 for past) for the patient or, with
+    //      `appointment-status.derive-from-time` (the default), those starting from now / before now, so the answer does
+    //      not depend on `AppointmentStatusEngine` having caught up.
     //    - Converts the appointments into `AppointmentDTO` and returns them in the response.
     //    - Instruction: Ensure the method correctly handles "past" and "future" conditions, and that invalid conditions are caught and returned as errors.
     @Transactional
@@ -113,15 +133,18 @@ public class PatientService {
     @Transactional
     public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String doctorName, String condition, Long patientId) {
         try {
-            int status;
-            if (condition.equalsIgnoreCase("future")) {
-                status = 0; // Future appointments
-            } else if (condition.equalsIgnoreCase("past")) {
-                status = 1; // Past appointments
-            } else {
+            Integer status = statusOf(condition);
+            if (status == null) {
                 return ResponseEntity.status(400).body(Map.of("error", "Invalid condition. Use 'past' or 'future'."));
             }
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(doctorName, patientId, status);
+            List<Appointment> appointments;
+            if (!deriveFromTime) {
+                appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(doctorName, patientId, status);
+            } else if (status == Appointment.STATUS_SCHEDULED) {
+                appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndAppointmentTimeFrom(doctorName, patientId, LocalDateTime.now());
+            } else {
+                appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndAppointmentTimeBefore(doctorName, patientId, LocalDateTime.now());
+            }
             List<AppointmentDTO> appointmentDTOs = appointments.stream().map(this::toDto).toList(); 
             return ResponseEntity.ok(Map.of("appointments", appointmentDTOs));
         } catch (Exception e) {
@@ -131,17 +154,17 @@ public class PatientService {
     }
     // 7. **filterByDoctorAndCondition Method**:
     //    - Filters appointments based on both the doctor's name and the condition (past or future) for a specific patient.
-    //    - This method combines filtering by doctor name and appointment status (past or future).
+    //    - This method combines filtering by doctor name and appointment status (past or future); like `filterByCondition`,
+    //      past/future is derived from the appointment time unless `appointment-status.derive-from-time` is false.
     //    - Converts the appointments into `AppointmentDTO` objects and returns them in the response.
     //    - Instruction: Ensure that the filter handles both doctor name and condition properly, and catches errors for invalid input.
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientDetails(String token) {
+    public ResponseEntity<Map<String, Object>> getPatientDetails(AuthenticatedPrincipal principal) {
         try {
-            String email = tokenService.extractEmail(token);
-            if (email == null || email.isEmpty()) {
+            if (principal == null || !principal.hasRole("patient")) {
                 return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
             }
-            Patient patient = patientRepository.findByEmail(email);
+            Patient patient = patientRepository.findById(principal.id()).orElse(null);
             if (patient == null) {
                 return ResponseEntity.status(404).body(Map.of("error", "Patient not found"));
             }
@@ -152,14 +175,74 @@ public class PatientService {
         }
     }
     // 8. **getPatientDetails Method**:
-    //    - Retrieves patient details using the `tokenService` to extract the patient's email from the provided token.
-    //    - Once the email is extracted, it fetches the corresponding patient from the `patientRepository`.
+    //    - Retrieves patient details for the request's authenticated principal.
+    //    - The patient is fetched by primary key from the `patientRepository`.
     //    - It returns the patient's information in the response body.
     //    - Instruction: Make sure that the token extraction process works correctly and patient details are fetched properly based on the extracted email.
 
+    @Transactional
+    public ResponseEntity<Map<String, Object>> getAppointmentPage(Long patientId, String condition, String doctorName,
+            AppointmentCursor after, int limit, AuthenticatedPrincipal principal) {
+        try {
+            if (principal == null || !principal.hasRole("patient")) {
+                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+            }
+            if (!principal.id().equals(patientId)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Unauthorized access to patient data"));
+            }
+            Integer status = condition == null ? null : statusOf(condition);
+            if (condition != null && status == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "Invalid condition. Use 'past' or 'future'."));
+            }
+            LocalDateTime startsBefore = null;
+            LocalDateTime startsFrom = null;
+            if (status != null && deriveFromTime) {
+                if (status == Appointment.STATUS_SCHEDULED) {
+                    startsFrom = LocalDateTime.now();
+                } else {
+                    startsBefore = LocalDateTime.now();
+                }
+                status = null;
+            }
+            List<Long> doctorIds = doctorName == null ? null : doctorSearchIndex.search(doctorName, null);
+            AppointmentPage page = new AppointmentPage(List.of(), null);
+            if (doctorIds == null || !doctorIds.isEmpty()) {
+                List<AppointmentDTO> appointments = appointmentRepository.findPatientHistory(patientId, status, startsBefore, startsFrom, doctorIds, after, limit + 1)
+                        .stream().map(this::toDto).toList();
+                page = appointments.size() <= limit ? new AppointmentPage(appointments, null)
+                        : new AppointmentPage(appointments.subList(0, limit), AppointmentCursor.after(appointments.get(limit - 1)).encode());
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("appointments", page.appointments());
+            if (page.nextCursor() != null) {
+                body.put("nextCursor", page.nextCursor());
+            }
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+    // 8a. **getAppointmentPage Method**:
+    //    - Returns one page of the patient's appointments, oldest first, optionally filtered by condition and doctor name
+    //      like `filterByCondition` / `filterByDoctor`: `{"appointments": [...], "nextCursor": "..."}`.
+    //    - Pages are keyed by the last (appointmentTime, id) returned, so each page is one bounded range scan of the
+    //      patient's history index however long the history is. One extra row is read to tell if there is a next page.
+    //    - The doctor name is resolved to doctor ids through the in-memory `DoctorSearchIndex` instead of a `LIKE` join.
+
     // 9. **Handling Exceptions and Errors**:
     //    - The service methods handle exceptions using try-catch blocks and log any issues that occur. If an error occurs during database operations, the service responds with appropriate HTTP status codes (e.g., `500 Internal Server Error`).
     //    - Instruction: Ensure that error handling is consistent across the service, with proper logging and meaningful error messages returned to the client.
+    // "future" and "past" as the status they stand for, or null for any other condition.
+    private static Integer statusOf(String condition) {
+        if (condition.equalsIgnoreCase("future")) {
+            return Appointment.STATUS_SCHEDULED; // Future appointments
+        } else if (condition.equalsIgnoreCase("past")) {
+            return Appointment.STATUS_COMPLETED; // Past appointments
+        }
+        return null;
+    }
+
     private AppointmentDTO toDto(Appointment a) {
         if (a == null) return null;
         Doctor d = a.getDoctor();
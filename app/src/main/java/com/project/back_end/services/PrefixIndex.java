@@ -0,0 +1,142 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Immutable sorted-array prefix index for autocomplete: normalised terms in sorted order, each pointing at the text to
+// suggest and its weight (how many doctors it stands for).
+//    - A lookup binary-searches the range of terms starting with the prefix and keeps the `limit` heaviest suggestions
+//      with a small heap, so it allocates little and never locks. Ties are broken alphabetically.
+//    - Prefixes matching more than `SCAN_LIMIT` terms (short ones such as "a") have their top `PRECOMPUTED` suggestions
+//      computed when the index is built, so no lookup scans more than `SCAN_LIMIT` terms.
+//    - Every word of a suggestion is a term, so "smi" suggests "John Smith".
+final class PrefixIndex {
+    static final int PRECOMPUTED = 20;
+    private static final int SCAN_LIMIT = 256;
+    static final PrefixIndex EMPTY = of(Map.of());
+
+    private final String[] terms;
+    private final String[] suggestions;
+    private final int[] weights;
+    private final Map<String, List<String>> dense = new HashMap<>();
+
+    private PrefixIndex(String[] terms, String[] suggestions, int[] weights) {
+        this.terms = terms;
+        this.suggestions = suggestions;
+        this.weights = weights;
+        precompute(0, terms.length, 0);
+    }
+
+    // Builds the index from normalised keys (lower case, no accents) mapped to the suggestion text and its weight.
+    static PrefixIndex of(Map<String, Weighted> entries) {
+        List<String[]> rows = new ArrayList<>();
+        List<Integer> rowWeights = new ArrayList<>();
+        for (Map.Entry<String, Weighted> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || (key.charAt(start - 1) == ' ' && key.charAt(start) != ' ')) {
+                    rows.add(new String[] {key.substring(start), entry.getValue().text()});
+                    rowWeights.add(entry.getValue().weight());
+                }
+            }
+        }
+        Integer[] order = new Integer[rows.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing((Integer i) -> rows.get(i)[0]));
+        String[] terms = new String[order.length];
+        String[] suggestions = new String[order.length];
+        int[] weights = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            terms[i] = rows.get(order[i])[0];
+            suggestions[i] = rows.get(order[i])[1];
+            weights[i] = rowWeights.get(order[i]);
+        }
+        return new PrefixIndex(terms, suggestions, weights);
+    }
+
+    // Up to `limit` suggestions with a term starting with the normalised `prefix`, heaviest first.
+    List<String> top(String prefix, int limit) {
+        List<String> precomputed = dense.get(prefix);
+        if (precomputed != null && limit <= PRECOMPUTED) {
+            return precomputed.subList(0, Math.min(limit, precomputed.size()));
+        }
+        int from = lowerBound(prefix);
+        return scan(prefix, from, terms.length, limit);
+    }
+
+    // Stores the answer for every prefix of more than `SCAN_LIMIT` terms within [from, to), which share `depth` characters.
+    private void precompute(int from, int to, int depth) {
+        if (to - from <= SCAN_LIMIT) {
+            return;
+        }
+        String prefix = terms[from].substring(0, depth);
+        dense.put(prefix, List.copyOf(scan(prefix, from, to, PRECOMPUTED)));
+        int start = from;
+        while (start < to && terms[start].length() == depth) {
+            start++; // The term equal to the prefix sorts first and has no longer prefix
+        }
+        while (start < to) {
+            char next = terms[start].charAt(depth);
+            int end = start;
+            while (end < to && terms[end].charAt(depth) == next) {
+                end++;
+            }
+            precompute(start, end, depth + 1);
+            start = end;
+        }
+    }
+
+    private List<String> scan(String prefix, int from, int to, int limit) {
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, this::compareRank);
+        Set<String> seen = new HashSet<>();
+        for (int i = from; i < to && terms[i].startsWith(prefix); i++) {
+            if (!seen.add(suggestions[i])) {
+                continue; // Several words of the same suggestion match
+            }
+            best.add(i);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<String> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(suggestions[best.poll()]);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Orders weaker suggestions first, so the heap evicts the weakest.
+    private int compareRank(int a, int b) {
+        int byWeight = Integer.compare(weights[a], weights[b]);
+        return byWeight != 0 ? byWeight : suggestions[b].compareTo(suggestions[a]);
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    record Weighted(String text, int weight) {
+        Weighted plus(Weighted other) {
+            return new Weighted(text, weight + other.weight);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tracks whether the principal behind a token (role + entity id) may still use its tokens.
+//    - The first check for a principal after startup runs a primary-key existence query; the answer is then kept in memory,
+//      so subsequent token validations for that principal are pure map lookups.
+//    - `deactivate` marks a removed principal inactive at once, so its tokens are rejected without another query.
+//    - Removals survive restarts because existence is re-read from the database.
+@Component
+public class PrincipalRegistry {
+    private final AdminRepository adminRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final Map<String, Boolean> active = new ConcurrentHashMap<>();
+
+    public PrincipalRegistry(AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository) {
+        this.adminRepository = adminRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+    }
+
+    // Returns true if the principal exists and has not been deactivated.
+    public boolean isActive(String role, Long id) {
+        if (role == null || id == null) {
+            return false;
+        }
+        String key = key(role, id);
+        Boolean known = active.get(key);
+        if (known == null) {
+            // Queried outside the map so a slow lookup does not block other principals' checks; a `deactivate`
+            // recorded meanwhile wins over the answer
+            boolean loaded = exists(role, id);
+            Boolean previous = active.putIfAbsent(key, loaded);
+            known = previous == null ? loaded : previous;
+        }
+        return known;
+    }
+
+    public void deactivate(String role, Long id) {
+        active.put(key(role, id), false);
+    }
+
+    private boolean exists(String role, Long id) {
+        switch (role) {
+            case "admin":
+                return adminRepository.existsById(id);
+            case "doctor":
+                return doctorRepository.existsById(id);
+            case "patient":
+                return patientRepository.existsById(id);
+            default:
+                return false;
+        }
+    }
+
+    private static String key(String role, Long id) {
+        return role + ":" + id;
+    }
+}
@@ -0,0 +1,162 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.ScheduleExceptionRequest;
+import com.project.back_end.DTO.ScheduleRange;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.WeeklyAvailability;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.WeeklyAvailabilityRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// 1. **Add @Service Annotation**:
+//    - Manages doctors' schedules: weekly recurring blocks (`WeeklyAvailability`) and date-specific exceptions (`ScheduleException`).
+//    - Every write invalidates the doctor in the `AvailabilityIndex`, which serves the parsed `WeeklySchedule` to all readers.
+//    - Weekly block changes also bump the `DoctorDirectory` version; exceptions do not appear in the directory.
+@Service
+public class ScheduleService {
+    // 2. **Constructor Injection for Dependencies**:
+    private final WeeklyAvailabilityRepository weeklyAvailabilityRepository;
+    private final ScheduleExceptionRepository scheduleExceptionRepository;
+    private final DoctorRepository doctorRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final DoctorDirectory doctorDirectory;
+
+    public ScheduleService(WeeklyAvailabilityRepository weeklyAvailabilityRepository, ScheduleExceptionRepository scheduleExceptionRepository,
+            DoctorRepository doctorRepository, AvailabilityIndex availabilityIndex, DoctorDirectory doctorDirectory) {
+        this.weeklyAvailabilityRepository = weeklyAvailabilityRepository;
+        this.scheduleExceptionRepository = scheduleExceptionRepository;
+        this.doctorRepository = doctorRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.doctorDirectory = doctorDirectory;
+    }
+    // 3. **replaceWeekly Method**:
+    //    - Replaces all weekly blocks of the doctor; returns false (and changes nothing) if any block is invalid.
+    @Transactional
+    public boolean replaceWeekly(Long doctorId, List<ScheduleRange> ranges) {
+        if (ranges == null || !ranges.stream().allMatch(ScheduleService::isValid)) {
+            return false;
+        }
+        Doctor doctor = doctorRepository.getReferenceById(doctorId);
+        weeklyAvailabilityRepository.deleteAllByDoctorId(doctorId);
+        List<WeeklyAvailability> blocks = new ArrayList<>();
+        for (ScheduleRange range : ranges) {
+            blocks.add(new WeeklyAvailability(doctor, range.dayOfWeek(), range.start(), range.end()));
+        }
+        weeklyAvailabilityRepository.saveAll(blocks);
+        availabilityIndex.invalidateDoctor(doctorId);
+        doctorDirectory.bump(); // The directory lists each doctor's weekly slots
+        return true;
+    }
+    // 4. **everyDay Method**:
+    //    - Converts the legacy `availableTimes` slot strings ("09:00-10:00") into one block per slot on every weekday,
+    //      which is what those strings meant before schedules existed. Malformed strings, and slots that would run past
+    //      midnight, are skipped.
+    public static List<ScheduleRange> everyDay(List<String> slotStrings) {
+        List<ScheduleRange> ranges = new ArrayList<>();
+        if (slotStrings == null) {
+            return ranges;
+        }
+        for (String slot : slotStrings) {
+            int index = DailySlots.slotIndex(slot);
+            if (index < 0) {
+                continue;
+            }
+            LocalTime start = DailySlots.startOf(index);
+            if (start.isAfter(LocalTime.MIDNIGHT.minusMinutes(WeeklySchedule.APPOINTMENT_MINUTES))) {
+                continue;
+            }
+            for (DayOfWeek day : DayOfWeek.values()) {
+                ranges.add(new ScheduleRange(day, start, start.plusMinutes(WeeklySchedule.APPOINTMENT_MINUTES)));
+            }
+        }
+        return ranges;
+    }
+    // 5. **deleteSchedule Method**:
+    //    - Removes all schedule rows of a doctor; used when the doctor is deleted.
+    @Transactional
+    public void deleteSchedule(Long doctorId) {
+        weeklyAvailabilityRepository.deleteAllByDoctorId(doctorId);
+        scheduleExceptionRepository.deleteAllByDoctorId(doctorId);
+    }
+    // 6. **getSchedule Method**:
+    //    - Returns the calling doctor's weekly blocks (sorted by day and time) and exceptions.
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getSchedule(AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("doctor")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        List<ScheduleRange> weekly = weeklyAvailabilityRepository.findByDoctorIds(List.of(principal.id())).stream()
+                .map(block -> new ScheduleRange(block.getDayOfWeek(), block.getStartTime(), block.getEndTime()))
+                .sorted(Comparator.comparing(ScheduleRange::dayOfWeek).thenComparing(ScheduleRange::start))
+                .toList();
+        List<ScheduleException> exceptions = scheduleExceptionRepository.findByDoctorIds(List.of(principal.id())).stream()
+                .sorted(Comparator.comparing(ScheduleException::getExceptionDate))
+                .toList();
+        return ResponseEntity.ok(Map.of("weekly", weekly, "exceptions", exceptions));
+    }
+    // 7. **updateWeekly Method**:
+    //    - Replaces the calling doctor's weekly blocks.
+    @Transactional
+    public ResponseEntity<Map<String, String>> updateWeekly(List<ScheduleRange> ranges, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("doctor")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        if (!replaceWeekly(principal.id(), ranges)) {
+            return ResponseEntity.status(400).body(Map.of("error", "Each block needs a dayOfWeek and a start before its end"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Schedule updated"));
+    }
+    // 8. **addException Method**:
+    //    - Adds time off or an extra clinic on one date for the calling doctor. Existing bookings are not touched.
+    @Transactional
+    public ResponseEntity<Map<String, Object>> addException(ScheduleExceptionRequest request, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("doctor")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        if (request == null || request.date() == null || request.date().isBefore(LocalDate.now())) {
+            return ResponseEntity.status(400).body(Map.of("error", "A date that is today or later is required"));
+        }
+        boolean wholeDay = request.start() == null && request.end() == null;
+        if ((request.available() || !wholeDay) && !isValid(new ScheduleRange(request.date().getDayOfWeek(), request.start(), request.end()))) {
+            return ResponseEntity.status(400).body(Map.of("error", "start must be before end; extra clinics need both"));
+        }
+        ScheduleException exception = scheduleExceptionRepository.save(new ScheduleException(
+                doctorRepository.getReferenceById(principal.id()), request.date(), request.start(), request.end(), request.available()));
+        availabilityIndex.invalidateDoctor(principal.id());
+        return ResponseEntity.ok(Map.of("message", "Schedule exception added", "id", exception.getId()));
+    }
+    // 9. **removeException Method**:
+    //    - Removes one of the calling doctor's exceptions.
+    @Transactional
+    public ResponseEntity<Map<String, String>> removeException(Long exceptionId, AuthenticatedPrincipal principal) {
+        if (principal == null || !principal.hasRole("doctor")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+        }
+        ScheduleException exception = scheduleExceptionRepository.findByIdAndDoctorId(exceptionId, principal.id());
+        if (exception == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Schedule exception not found"));
+        }
+        scheduleExceptionRepository.delete(exception);
+        availabilityIndex.invalidateDoctor(principal.id());
+        return ResponseEntity.ok(Map.of("message", "Schedule exception removed"));
+    }
+
+    // An end of 00:00 means midnight.
+    private static boolean isValid(ScheduleRange range) {
+        return range != null && range.dayOfWeek() != null && range.start() != null && range.end() != null
+                && (range.end().isAfter(range.start()) || range.end().equals(LocalTime.MIDNIGHT));
+    }
+}
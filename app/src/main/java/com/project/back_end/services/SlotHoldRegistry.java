@@ -0,0 +1,210 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Short-lived in-memory reservations of a (doctorId, slot) while a patient confirms the booking.
+//    - A slot can be held by one patient at a time, and a patient holds at most one slot (holding another releases it).
+//      Competing patients are turned away here, in memory, instead of after a full validate+insert cycle in MySQL.
+//    - Holds expire after `slot-hold.ttl-seconds`. Reads compare against the expiry directly, so an expired hold never
+//      blocks anyone; a hashed timing wheel (`slot-hold.wheel-size` buckets of `slot-hold.tick-ms`) reclaims them in
+//      O(1) per hold instead of scanning every hold on each sweep.
+//    - Holds are advisory and not persisted: the unique (doctor, slot) key remains the source of truth for bookings.
+@Component
+public class SlotHoldRegistry {
+    private final Map<DayKey, Map<Integer, Hold>> days = new ConcurrentHashMap<>();
+    private final Map<Long, Hold> byPatient = new ConcurrentHashMap<>();
+    private final ArrayDeque<Hold>[] wheel;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final Counter rejected;
+    private long currentTick; // Guarded by `wheel`
+
+    @SuppressWarnings("unchecked")
+    public SlotHoldRegistry(MeterRegistry meterRegistry,
+            @Value("${slot-hold.ttl-seconds:120}") long ttlSeconds,
+            @Value("${slot-hold.tick-ms:1000}") long tickMillis,
+            @Value("${slot-hold.wheel-size:256}") int wheelSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+        Gauge.builder("slot.holds.active", byPatient, Map::size).register(meterRegistry);
+        this.rejected = Counter.builder("slot.holds.rejected").register(meterRegistry);
+    }
+
+    // Holds the slot starting at `start` for the patient, or returns null if another patient holds it.
+    // Holding the same slot again extends the hold.
+    public Hold hold(Long doctorId, LocalDateTime start, Long patientId) {
+        long now = System.currentTimeMillis();
+        int index = DailySlots.slotIndex(start.toLocalTime());
+        Hold fresh = new Hold(UUID.randomUUID().toString(), doctorId, start, patientId, now + ttlMillis);
+        Hold[] winner = new Hold[1];
+        days.compute(new DayKey(doctorId, start.toLocalDate()), (key, slots) -> {
+            Map<Integer, Hold> updated = slots == null ? new ConcurrentHashMap<>() : slots;
+            Hold current = updated.get(index);
+            if (current == null || current.expiresAt() <= now || current.patientId().equals(patientId)) {
+                updated.put(index, fresh);
+                winner[0] = fresh;
+            } else {
+                winner[0] = current;
+            }
+            return updated;
+        });
+        if (winner[0] != fresh) {
+            rejected.increment();
+            return null;
+        }
+        Hold previous = byPatient.put(patientId, fresh);
+        if (previous != null && !previous.sameSlot(fresh)) {
+            remove(previous);
+        }
+        schedule(fresh);
+        return fresh;
+    }
+
+    // Returns true if a patient other than `patientId` currently holds the slot.
+    public boolean isHeldByOther(Long doctorId, LocalDateTime start, Long patientId) {
+        Map<Integer, Hold> slots = days.get(new DayKey(doctorId, start.toLocalDate()));
+        if (slots == null) {
+            return false;
+        }
+        Hold hold = slots.get(DailySlots.slotIndex(start.toLocalTime()));
+        return hold != null && hold.expiresAt() > System.currentTimeMillis() && !hold.patientId().equals(patientId);
+    }
+
+    // Returns true if another patient holds any slot an appointment of `minutes` from `start` covers.
+    public boolean isHeldByOther(Long doctorId, LocalDateTime start, int minutes, Long patientId) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        for (LocalDateTime slot = start; slot.isBefore(end); slot = slot.plusMinutes(WeeklySchedule.APPOINTMENT_MINUTES)) {
+            if (isHeldByOther(doctorId, slot, patientId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public DailySlots heldSlots(Long doctorId, LocalDate date) {
+        Map<Integer, Hold> slots = days.get(new DayKey(doctorId, date));
+        return slots == null ? DailySlots.EMPTY : activeSlots(slots, System.currentTimeMillis());
+    }
+
+    // Held slots of several doctors over [from, to], grouped like `DoctorService` groups booked slots.
+    public Map<Long, Map<LocalDate, DailySlots>> heldSlots(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<Long, Map<LocalDate, DailySlots>> held = new HashMap<>();
+        long now = System.currentTimeMillis();
+        days.forEach((key, slots) -> {
+            if (doctorIds.contains(key.doctorId()) && !key.date().isBefore(from) && !key.date().isAfter(to)) {
+                DailySlots active = activeSlots(slots, now);
+                if (!active.isEmpty()) {
+                    held.computeIfAbsent(key.doctorId(), id -> new HashMap<>()).put(key.date(), active);
+                }
+            }
+        });
+        return held;
+    }
+
+    // Releases the patient's hold if it has the given id; returns false if there is no such hold.
+    public boolean release(String holdId, Long patientId) {
+        Hold hold = byPatient.get(patientId);
+        if (hold == null || !hold.holdId().equals(holdId)) {
+            return false;
+        }
+        byPatient.remove(patientId, hold);
+        remove(hold);
+        return true;
+    }
+
+    // Releases the patient's hold on the slot, if any (e.g. once the booking is stored).
+    public void releaseSlot(Long doctorId, LocalDateTime start, Long patientId) {
+        Hold hold = byPatient.get(patientId);
+        if (hold != null && hold.doctorId().equals(doctorId)
+                && DailySlots.slotIndex(hold.start().toLocalTime()) == DailySlots.slotIndex(start.toLocalTime())
+                && hold.start().toLocalDate().equals(start.toLocalDate())) {
+            byPatient.remove(patientId, hold);
+            remove(hold);
+        }
+    }
+
+    // Advances the wheel to the current time, dropping the holds whose deadline has passed.
+    @Scheduled(fixedRateString = "${slot-hold.tick-ms:1000}")
+    public void expire() {
+        long nowTick = System.currentTimeMillis() / tickMillis;
+        ArrayDeque<Hold> due = new ArrayDeque<>();
+        synchronized (wheel) {
+            // After a long pause one lap of the wheel already visits every bucket
+            long firstTick = Math.max(currentTick + 1, nowTick - wheel.length + 1);
+            for (long tick = firstTick; tick <= nowTick; tick++) {
+                Iterator<Hold> bucket = wheel[(int) (tick % wheel.length)].iterator();
+                while (bucket.hasNext()) {
+                    Hold hold = bucket.next();
+                    if (deadlineTick(hold) <= nowTick) {
+                        bucket.remove();
+                        due.add(hold);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+        }
+        for (Hold hold : due) {
+            byPatient.remove(hold.patientId(), hold);
+            remove(hold); // No-op if the hold was already released or replaced
+        }
+    }
+
+    private void schedule(Hold hold) {
+        long deadlineTick = deadlineTick(hold);
+        synchronized (wheel) {
+            wheel[(int) (deadlineTick % wheel.length)].add(hold);
+        }
+    }
+
+    // First tick at which the hold has certainly expired; holds further out than one lap stay for later laps.
+    private long deadlineTick(Hold hold) {
+        return (hold.expiresAt() + tickMillis - 1) / tickMillis;
+    }
+
+    private void remove(Hold hold) {
+        int index = DailySlots.slotIndex(hold.start().toLocalTime());
+        days.computeIfPresent(new DayKey(hold.doctorId(), hold.start().toLocalDate()), (key, slots) -> {
+            slots.remove(index, hold);
+            return slots.isEmpty() ? null : slots;
+        });
+    }
+
+    private static DailySlots activeSlots(Map<Integer, Hold> slots, long now) {
+        DailySlots active = DailySlots.EMPTY;
+        for (Hold hold : slots.values()) {
+            if (hold.expiresAt() > now) {
+                active = active.with(DailySlots.slotIndex(hold.start().toLocalTime()));
+            }
+        }
+        return active;
+    }
+
+    public record Hold(String holdId, Long doctorId, LocalDateTime start, Long patientId, long expiresAt) {
+        boolean sameSlot(Hold other) {
+            return doctorId.equals(other.doctorId) && start.equals(other.start);
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Denylist of revoked token ids (`jti`) checked on every authenticated request without touching the database.
+//    - Lookups go through a Bloom filter first; only the rare positive answer consults the exact jti -> expiry map,
+//      so the common "not revoked" case is a handful of bit reads.
+//    - Entries are kept only until their token would have expired anyway; `prune` drops them and rebuilds the filter
+//      (Bloom filters cannot delete).
+//    - The exact set is snapshotted to `revocation.snapshot-path` periodically and on shutdown, and reloaded on startup.
+@Component
+public class TokenRevocationList {
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int bloomBits;
+    private final int bloomHashes;
+    private final Path snapshotPath;
+    private volatile BloomFilter filter;
+    private volatile boolean dirty;
+
+    public TokenRevocationList(MeterRegistry meterRegistry,
+            @Value("${revocation.bloom-bits:1048576}") int bloomBits,
+            @Value("${revocation.bloom-hashes:5}") int bloomHashes,
+            @Value("${revocation.snapshot-path:data/revoked-tokens.txt}") String snapshotPath) {
+        this.bloomBits = bloomBits;
+        this.bloomHashes = bloomHashes;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.filter = new BloomFilter(bloomBits, bloomHashes);
+        Gauge.builder("token.revocation.size", revoked, Map::size).register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return; // Already expired tokens are rejected without help
+        }
+        revoked.put(jti, expiresAtMillis);
+        filter.add(jti);
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.prune-interval-ms:600000}")
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            BloomFilter rebuilt = new BloomFilter(bloomBits, bloomHashes);
+            revoked.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+            dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write(' ');
+                    writer.write(Long.toString(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            e.printStackTrace();
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    revoke(line.substring(0, separator), Long.parseLong(line.substring(separator + 1).trim()));
+                }
+            }
+            dirty = false;
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+}
@@ -1,12 +1,11 @@
 package com.project.back_end.services;
 
-import com.project.back_end.repo.AdminRepository;
-import com.project.back_end.repo.DoctorRepository;
-import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.Claims;
 
@@ -14,51 +13,61 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 
 // 1. **@Component Annotation**
 // The @Component annotation marks this class as a Spring component, meaning Spring will manage it as a bean within its application context.
 // This allows the class to be injected into other Spring-managed components (like services or controllers) where it's needed.
 
-import jakarta.transaction.Transactional;
 @Component
 public class TokenService {
     // 2. **Constructor Injection for Dependencies**
-    // The constructor injects dependencies for `AdminRepository`, `DoctorRepository`, and `PatientRepository`,
+    // The constructor injects the `IdentityCache` (backed by `AdminRepository`, `DoctorRepository`, and `PatientRepository`),
     // allowing the service to interact with the database and validate users based on their role (admin, doctor, or patient).
     // Constructor injection ensures that the class is initialized with all required dependencies, promoting immutability and making the class testable.
-    private final AdminRepository adminRepository;
-    private final DoctorRepository doctorRepository;
-    private final PatientRepository patientRepository;
-    private final String jwt;
-    public TokenService(AdminRepository adminRepository, DoctorRepository doctorRepository, PatientRepository patientRepository, @Value("${jwt.secret}") String jwt) {
-        this.adminRepository = adminRepository;
-        this.doctorRepository = doctorRepository;
-        this.patientRepository = patientRepository;
-        this.jwt = jwt;
+    private final IdentityCache identityCache;
+    // The signing key and parser are immutable and thread-safe, so they are built once instead of per call.
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedClaimsCache claimsCache;
+    private final PrincipalRegistry principalRegistry;
+    private final TokenRevocationList revocationList;
+    public static final String ROLE_CLAIM = "role";
+    public static final String PRINCIPAL_ID_CLAIM = "uid";
+    public TokenService(IdentityCache identityCache, PrincipalRegistry principalRegistry, TokenRevocationList revocationList,
+            @Value("${jwt.secret}") String jwt, @Value("${jwt.claims-cache.max-entries:10000}") int claimsCacheMaxEntries) {
+        this.identityCache = identityCache;
+        this.principalRegistry = principalRegistry;
+        this.revocationList = revocationList;
+        this.signingKey = Keys.hmacShaKeyFor(jwt.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.claimsCache = new VerifiedClaimsCache(claimsCacheMaxEntries);
     }
     // 3. **getSigningKey Method**
     // This method retrieves the HMAC SHA key used to sign JWT tokens.
     // It uses the `jwt.secret` value, which is provided from an external source (like application properties).
     // The `Keys.hmacShaKeyFor()` method converts the secret key string into a valid `SecretKey` for signing and verification of JWTs.
-    @Transactional
     public SecretKey getSigningKey() {
-        var key = Keys.hmacShaKeyFor(jwt.getBytes(StandardCharsets.UTF_8));
-        return key;
+        return signingKey;
     }
     // 4. **generateToken Method**
     // This method generates a JWT token for a user based on their email.
     // - The `subject` of the token is set to the user's email, which is used as an identifier.
+    // - The `jti` claim is a random token id, used to revoke this single token (e.g. on logout).
+    // - The `role` and `uid` claims carry the user's role (admin, doctor, or patient) and entity id, so later checks need no lookup.
     // - The `issuedAt` is set to the current date and time.
     // - The `expiration` is set to 7 days from the issue date, ensuring the token expires after one week.
     // - The token is signed using the signing key generated by `getSigningKey()`, making it secure and tamper-proof.
     // The method returns the JWT token as a string.
-    @Transactional
-    public String generateToken(String identifier) {
+    public String generateToken(String identifier, String role, Long principalId) {
         Instant now = Instant.now();
         SecretKey key = getSigningKey();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(identifier) 
+                .claim(ROLE_CLAIM, role)
+                .claim(PRINCIPAL_ID_CLAIM, principalId)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plus(7, ChronoUnit.DAYS)))
                 .signWith(key, Jwts.SIG.HS256)
@@ -67,7 +76,6 @@ public class TokenService {
     // 5. **extractEmail Method**
     // This method extracts the user's email (subject) from the provided JWT token.
     // - The token is first verified using the signing key to ensure it hasn’t been tampered with.
-    @Transactional
     public String extractEmail(String token) {
         try {
             return extractIdentifier(token);
@@ -77,33 +85,43 @@ public class TokenService {
     }
     // 6. **validateToken Method**
     // This method validates whether a provided JWT token is valid for a specific user role (admin, doctor, or patient).
+    // - Tokens carrying `role` and `uid` claims are checked without touching the database: the role must match and the
+    //   `PrincipalRegistry` must still consider the principal active for the token's issue time.
+    // - Older tokens without these claims fall back to the lookup below.
     // - It first extracts the email from the token using the `extractEmail()` method.
     // - Depending on the role (`admin`, `doctor`, or `patient`), it checks the corresponding repository (AdminRepository, DoctorRepository, or PatientRepository)
-    //   to see if a user with the extracted email exists.
+    //   (through the `IdentityCache`) to see if a user with the extracted email exists.
     // - If a match is found for the specified user role, it returns true, indicating the token is valid.
     // - If the role or user does not exist, it returns false, indicating the token is invalid.
     // - The method gracefully handles any errors by returning false if the token is invalid or an exception occurs.
     // This ensures secure access control based on the user's role and their existence in the system.
-    @Transactional
     public boolean validateToken(String token, String user) {
         try {
-            String email = extractEmail(token);
+            Claims claims = getVerifiedClaims(token);
+            if (claims == null) {
+                return false;
+            }
+            if (claims.get(ROLE_CLAIM) != null) {
+                AuthenticatedPrincipal principal = resolvePrincipal(claims);
+                return principal != null && principal.hasRole(user);
+            }
+            String email = claims.getSubject();
             if (email == null) {
                 return false;
             }
             switch (user) {
                 case "admin":
-                    if (adminRepository.findByUsername(email) != null) {
+                    if (identityCache.findAdminByUsername(email) != null) {
                         return true;
                     }
                     break;
                 case "doctor":
-                    if (doctorRepository.findByEmail(email) != null) {
+                    if (identityCache.findDoctorByEmail(email) != null) {
                         return true;
                     }
                     break;
                 case "patient":
-                    if (patientRepository.findByEmail(email) != null) {
+                    if (identityCache.findPatientByEmail(email) != null) {
                         return true;
                     }
                     break;
@@ -116,17 +134,63 @@ public class TokenService {
         }
     }
 
-    public String extractIdentifier(String token) {
-        SecretKey key = getSigningKey();
-        try {
-            Claims claims = Jwts.parser() 
-                .verifyWith(key)    
-                .build()
-                .parseSignedClaims(token)  
-                .getPayload();
-            return claims.getSubject();
-        } catch (Exception e) {
+    // 7. **getVerifiedClaims Method**
+    // Returns the claims of a token whose signature and expiry have been verified, or null if the token is invalid or revoked.
+    // - Verified claims are cached by token hash until the token's own expiration, so repeated calls with the same token
+    //   (several per request, and many per dashboard page) skip the HMAC verification entirely.
+    public Claims getVerifiedClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Claims claims = claimsCache.get(token);
+        if (claims == null) {
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (Exception e) {
+                return null;
+            }
+            claimsCache.put(token, claims);
+        }
+        return revocationList.isRevoked(claims.getId()) ? null : claims;
+    }
+
+    // 8. **resolvePrincipal Method**
+    // Builds the caller's principal (id, role, email) from the token's verified claims, or returns null if the token is invalid,
+    // lacks role/id claims, or belongs to a principal that `PrincipalRegistry` no longer considers active.
+    public AuthenticatedPrincipal resolvePrincipal(String token) {
+        Claims claims = getVerifiedClaims(token);
+        return claims == null ? null : resolvePrincipal(claims);
+    }
+
+    private AuthenticatedPrincipal resolvePrincipal(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Long id = extractPrincipalId(claims);
+        if (role == null || id == null || !principalRegistry.isActive(role, id)) {
             return null;
         }
+        return new AuthenticatedPrincipal(id, role, claims.getSubject());
+    }
+
+    private Long extractPrincipalId(Claims claims) {
+        Number id = claims.get(PRINCIPAL_ID_CLAIM, Number.class);
+        return id == null ? null : id.longValue();
+    }
+
+    public String extractIdentifier(String token) {
+        Claims claims = getVerifiedClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    // 9. **revokeToken Method**
+    // Revokes a single token by its `jti` until the token's own expiration. Returns false if the token is already invalid
+    // or predates token ids (such tokens can only be cut off through `PrincipalRegistry`).
+    public boolean revokeToken(String token) {
+        Claims claims = getVerifiedClaims(token);
+        if (claims == null || claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+        claimsCache.invalidate(token);
+        return true;
     }
 }
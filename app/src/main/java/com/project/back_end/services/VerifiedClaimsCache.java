@@ -0,0 +1,77 @@
+package com.project.back_end.services;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded cache of JWT claims that already passed signature verification.
+//    - Entries are keyed by a SHA-256 hash of the token so raw tokens are never retained in memory.
+//    - Each entry expires at the token's own `exp` claim, so a cached entry can never outlive the token.
+//    - When the cache grows past `maxEntries`, expired entries are purged first and then arbitrary entries
+//      are dropped until the cache is back under its bound; a miss just means the token is verified again.
+class VerifiedClaimsCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    VerifiedClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    Claims get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxEntries <= 0) {
+            return; // Tokens without an expiry are never cached
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(hash(token), new Entry(claims, expiration.getTime()));
+    }
+
+    void invalidate(String token) {
+        entries.remove(hash(token));
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.ScheduleException;
+import com.project.back_end.models.WeeklyAvailability;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable, parsed form of one doctor's schedule: weekly recurring blocks plus date-specific exceptions.
+//    - Each weekday is a `DailySlots` bitmap of slot starts; exceptions are bitmaps of slots added or removed on one date.
+//    - A block offers consecutive slots of `APPOINTMENT_MINUTES` from its start, as long as the slot ends by the block's end.
+//    - Slot strings ("09:00-10:00") are only produced at the edges, for API responses; nothing re-parses them.
+public final class WeeklySchedule {
+    public static final int APPOINTMENT_MINUTES = 60;
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(emptyWeek(), Map.of(), Map.of());
+
+    private final DailySlots[] weekly;
+    private final Map<LocalDate, DailySlots> added;
+    private final Map<LocalDate, DailySlots> removed;
+
+    private WeeklySchedule(DailySlots[] weekly, Map<LocalDate, DailySlots> added, Map<LocalDate, DailySlots> removed) {
+        this.weekly = weekly;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public static WeeklySchedule of(Collection<WeeklyAvailability> blocks, Collection<ScheduleException> exceptions) {
+        DailySlots[] weekly = emptyWeek();
+        for (WeeklyAvailability block : blocks) {
+            int day = block.getDayOfWeek().getValue() - 1;
+            weekly[day] = weekly[day].or(slotsWithin(block.getStartTime(), block.getEndTime()));
+        }
+        Map<LocalDate, DailySlots> added = new HashMap<>();
+        Map<LocalDate, DailySlots> removed = new HashMap<>();
+        for (ScheduleException exception : exceptions) {
+            LocalTime start = exception.getStartTime() == null ? LocalTime.MIN : exception.getStartTime();
+            LocalTime end = exception.getEndTime();
+            if (exception.isAvailable()) {
+                added.merge(exception.getExceptionDate(), slotsWithin(start, end == null ? LocalTime.MAX : end), DailySlots::or);
+            } else {
+                removed.merge(exception.getExceptionDate(), slotsOverlapping(start, end), DailySlots::or);
+            }
+        }
+        return new WeeklySchedule(weekly, Map.copyOf(added), Map.copyOf(removed));
+    }
+
+    // The bookable slot starts on the date: its weekday's blocks, minus time off, plus extra clinics.
+    public DailySlots slotsOn(LocalDate date) {
+        DailySlots slots = weekly[date.getDayOfWeek().getValue() - 1];
+        DailySlots off = removed.get(date);
+        if (off != null) {
+            slots = slots.andNot(off);
+        }
+        DailySlots extra = added.get(date);
+        return extra == null ? slots : slots.or(extra);
+    }
+
+    // True if an appointment of `minutes` from `start` only covers offered slots: `start` and every following slot that
+    // begins before the appointment ends. A long booking cannot reach past the end of a block or into time off.
+    public boolean offers(LocalDateTime start, int minutes) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        for (LocalDateTime slot = start; slot.isBefore(end); slot = slot.plusMinutes(APPOINTMENT_MINUTES)) {
+            if (!slotsOn(slot.toLocalDate()).contains(slot.toLocalTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public DailySlots slotsOn(DayOfWeek day) {
+        return weekly[day.getValue() - 1];
+    }
+
+    // Every slot start offered on at least one weekday, ignoring exceptions.
+    public DailySlots weeklySlots() {
+        DailySlots union = DailySlots.EMPTY;
+        for (DailySlots day : weekly) {
+            union = union.or(day);
+        }
+        return union;
+    }
+
+    public boolean isEmpty() {
+        return weeklySlots().isEmpty() && added.isEmpty();
+    }
+
+    // Slot strings ("HH:mm-HH:mm") of the set slots, in time order.
+    public static List<String> slotStrings(DailySlots slots) {
+        List<String> result = new ArrayList<>(slots.count());
+        for (int index = slots.nextSlot(0); index >= 0; index = slots.nextSlot(index + 1)) {
+            result.add(slotString(index));
+        }
+        return result;
+    }
+
+    public static String slotString(int index) {
+        LocalTime start = DailySlots.startOf(index);
+        return start + "-" + start.plusMinutes(APPOINTMENT_MINUTES);
+    }
+
+    // Consecutive appointment-length slot starts from `start` that end by `end`.
+    public static DailySlots slotsWithin(LocalTime start, LocalTime end) {
+        DailySlots slots = DailySlots.EMPTY;
+        int startMinute = start.toSecondOfDay() / 60;
+        int endMinute = end == null ? startMinute + APPOINTMENT_MINUTES : minuteOfDay(end);
+        if (endMinute <= startMinute) {
+            endMinute += 24 * 60; // The last slot of the day may end after midnight
+        }
+        for (int minute = startMinute; minute + APPOINTMENT_MINUTES <= endMinute && minute < 24 * 60; minute += APPOINTMENT_MINUTES) {
+            slots = slots.with(minute / DailySlots.SLOT_MINUTES);
+        }
+        return slots;
+    }
+
+    // Every slot start whose appointment would overlap [start, end); a null end means the rest of the day.
+    public static DailySlots slotsOverlapping(LocalTime start, LocalTime end) {
+        int startMinute = start.toSecondOfDay() / 60;
+        int endMinute = end == null ? 24 * 60 : minuteOfDay(end);
+        DailySlots slots = DailySlots.EMPTY;
+        for (int index = 0; index < DailySlots.SLOTS_PER_DAY; index++) {
+            int slotStart = index * DailySlots.SLOT_MINUTES;
+            if (slotStart < endMinute && slotStart + APPOINTMENT_MINUTES > startMinute) {
+                slots = slots.with(index);
+            }
+        }
+        return slots;
+    }
+
+    // 24:00 written as 00:00 at the end of a block means midnight, not the start of the day.
+    private static int minuteOfDay(LocalTime end) {
+        if (end.equals(LocalTime.MAX)) {
+            return 24 * 60;
+        }
+        int minute = end.toSecondOfDay() / 60;
+        return minute == 0 ? 24 * 60 : minute;
+    }
+
+    private static DailySlots[] emptyWeek() {
+        DailySlots[] week = new DailySlots[7];
+        Arrays.fill(week, DailySlots.EMPTY);
+        return week;
+    }
+}
@@ -67,14 +67,23 @@ function renderHeader() {
 
 // 11. AttachHeaderButtonListeners Adds event listeners to login buttons for "Doctor" and "Admin" roles. If clicked, it opens the respective login modal.
 
+// Revokes the current token on the server; the local session is cleared regardless of the outcome.
+function revokeToken() {
+  const token = localStorage.getItem("token");
+  if (token) {
+    fetch(`/session/${token}`, { method: "DELETE", keepalive: true }).catch(() => {});
+  }
+}
 // 12. logout Removes user session data and redirects the user to the root page.
 function logout() {
+  revokeToken();
   localStorage.removeItem("userRole");
   localStorage.removeItem("token");
   window.location.href = "/";
 }
 // 13. logoutPatient Removes the patient's session token and redirects to the patient dashboard.
 function logoutPatient() {
+  revokeToken();
   localStorage.removeItem("token");
   localStorage.setItem("userRole", "patient");
   window.location.href = "/pages/patientDashboard.html";
@@ -0,0 +1,52 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void addedValuesAreAlwaysFound() {
+		BloomFilter filter = new BloomFilter(1 << 16, 4);
+		for (int i = 0; i < 5000; i++) {
+			filter.add("token-" + i);
+		}
+		for (int i = 0; i < 5000; i++) {
+			assertTrue(filter.mightContain("token-" + i));
+		}
+	}
+
+	@Test
+	void anEmptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1024, 3);
+		assertFalse(filter.mightContain(""));
+		assertFalse(filter.mightContain("token-0"));
+	}
+
+	@Test
+	void falsePositivesStayRare() {
+		// 1,000 values in 16,384 bits with 4 hashes: about 0.2% expected
+		BloomFilter filter = new BloomFilter(1 << 14, 4);
+		for (int i = 0; i < 1000; i++) {
+			filter.add("revoked-" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (filter.mightContain("valid-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 100, falsePositives + " false positives");
+	}
+
+	@Test
+	void sizesRoundUpToWholeWords() {
+		BloomFilter filter = new BloomFilter(1, 0); // 64 bits, one hash
+		filter.add("a");
+		assertTrue(filter.mightContain("a"));
+		filter.add("é"); // Hashed as UTF-8 bytes
+		assertTrue(filter.mightContain("é"));
+	}
+}
@@ -0,0 +1,76 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+// Intervals are half-open: a booking ending at 10:00 and one starting at 10:00 touch but do not overlap.
+class BookedIntervalsTest {
+	private static final int NINE = 9 * 60;
+	private static final int TEN = 10 * 60;
+
+	@Test
+	void touchingAtExactEndTimesIsNotAnOverlap() {
+		BookedIntervals booked = BookedIntervals.EMPTY.with(NINE, 60);
+		assertFalse(booked.overlaps(TEN, 60)); // Starts when the booking ends
+		assertFalse(booked.overlaps(NINE - 60, 60)); // Ends when the booking starts
+		assertTrue(booked.overlaps(TEN - 1, 60));
+		assertTrue(booked.overlaps(NINE - 60, 61));
+		assertTrue(booked.overlaps(NINE, 60));
+		assertTrue(booked.overlaps(NINE + 15, 15)); // Inside
+		assertTrue(booked.overlaps(NINE - 15, 90)); // Around
+	}
+
+	@Test
+	void aLongEarlierBookingStillOverlapsLaterStarts() {
+		// The 08:00-11:00 booking starts first but ends last; the running maximum of ends must catch it
+		BookedIntervals booked = BookedIntervals.EMPTY.with(8 * 60, 180).with(NINE, 15);
+		assertTrue(booked.overlaps(TEN, 60));
+		assertFalse(booked.overlaps(11 * 60, 60));
+	}
+
+	@Test
+	void withoutRemovesOnlyAnExactMatch() {
+		BookedIntervals booked = BookedIntervals.EMPTY.with(NINE, 60).with(NINE, 30);
+		assertSame(booked, booked.without(NINE, 45));
+		assertSame(booked, booked.without(NINE + 15, 60));
+		BookedIntervals shorter = booked.without(NINE, 60);
+		assertEquals(1, shorter.size());
+		assertEquals(BookedIntervals.EMPTY.with(NINE, 30), shorter);
+		assertFalse(shorter.overlaps(NINE + 30, 30));
+		assertEquals(BookedIntervals.EMPTY, shorter.without(NINE, 30));
+	}
+
+	@Test
+	void minutesAreCountedFromTheStartOfTheDay() {
+		LocalDate day = LocalDate.of(2030, 1, 7);
+		assertEquals(0, BookedIntervals.minuteOf(day, day.atStartOfDay()));
+		assertEquals(NINE, BookedIntervals.minuteOf(day, LocalDateTime.of(2030, 1, 7, 9, 0)));
+		assertEquals(-30, BookedIntervals.minuteOf(day, LocalDateTime.of(2030, 1, 6, 23, 30)));
+		assertEquals(24 * 60 + 15, BookedIntervals.minuteOf(day, LocalDateTime.of(2030, 1, 8, 0, 15)));
+	}
+
+	@Test
+	void blockedStartsAreTheSlotsAnAppointmentWouldOverlap() {
+		BookedIntervals booked = BookedIntervals.EMPTY.with(NINE, 60);
+		// A one-hour appointment overlaps 09:00-10:00 if it starts after 08:00 and before 10:00
+		assertEquals(DailySlots.range(DailySlots.slotIndex("08:15"), DailySlots.slotIndex("10:00")), booked.blockedStarts(60));
+		// A quarter-hour appointment only overlaps if it starts inside the booking
+		assertEquals(DailySlots.range(DailySlots.slotIndex("09:00"), DailySlots.slotIndex("10:00")), booked.blockedStarts(15));
+	}
+
+	@Test
+	void blockedStartsAreClippedToTheDay() {
+		// 23:30 the evening before until 00:30, and 23:30 until 00:30 the next morning
+		BookedIntervals booked = BookedIntervals.EMPTY.with(-30, 60).with(23 * 60 + 30, 60);
+		DailySlots blocked = booked.blockedStarts(60);
+		assertEquals(DailySlots.range(0, 2).or(DailySlots.range(DailySlots.slotIndex("22:45"), DailySlots.SLOTS_PER_DAY)), blocked);
+		assertTrue(booked.overlaps(0, 15));
+		assertFalse(booked.overlaps(30, 15));
+	}
+}
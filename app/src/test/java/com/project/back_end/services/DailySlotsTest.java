@@ -0,0 +1,92 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Slot edges of the two-word day bitmap: the first and last quarter-hour, and slots 63/64 where `low` hands over to `high`.
+class DailySlotsTest {
+
+	@Test
+	void slotIndexesCoverTheWholeDay() {
+		assertEquals(0, DailySlots.slotIndex(LocalTime.MIDNIGHT));
+		assertEquals(63, DailySlots.slotIndex(LocalTime.of(15, 45)));
+		assertEquals(64, DailySlots.slotIndex(LocalTime.of(16, 0)));
+		assertEquals(95, DailySlots.slotIndex(LocalTime.of(23, 59)));
+		assertEquals(LocalTime.of(23, 45), DailySlots.startOf(95));
+		assertEquals(LocalTime.of(16, 0), DailySlots.startOf(64));
+	}
+
+	@Test
+	void malformedSlotStringsAreRejected() {
+		assertEquals(36, DailySlots.slotIndex("09:00-10:00"));
+		assertEquals(-1, DailySlots.slotIndex("9:00-10:00"));
+		assertEquals(-1, DailySlots.slotIndex("24:00-01:00"));
+		assertEquals(-1, DailySlots.slotIndex("09:60"));
+		assertEquals(-1, DailySlots.slotIndex((String) null));
+		assertEquals(DailySlots.EMPTY.with(36), DailySlots.ofSlotStrings(List.of("09:00-10:00", "bad", "")));
+	}
+
+	@Test
+	void firstAndLastSlotsAreStoredInTheirOwnWords() {
+		DailySlots slots = DailySlots.EMPTY.with(0).with(63).with(64).with(95);
+		assertEquals(4, slots.count());
+		assertTrue(slots.contains(0));
+		assertTrue(slots.contains(63));
+		assertTrue(slots.contains(64));
+		assertTrue(slots.contains(95));
+		assertFalse(slots.contains(1));
+		assertFalse(slots.contains(62));
+		assertFalse(slots.contains(65));
+		assertEquals(DailySlots.EMPTY.with(0).with(95), slots.andNot(DailySlots.range(1, 95)));
+	}
+
+	@Test
+	void outOfRangeIndexesAreIgnored() {
+		assertEquals(DailySlots.EMPTY, DailySlots.EMPTY.with(-1).with(96).with(128));
+		assertFalse(DailySlots.range(0, 96).contains(-1));
+		assertFalse(DailySlots.range(0, 96).contains(96));
+		assertEquals(96, DailySlots.range(0, 96).count());
+	}
+
+	@Test
+	void onlyExactSlotStartsAreContained() {
+		DailySlots slots = DailySlots.EMPTY.with(LocalTime.of(9, 0));
+		assertTrue(slots.contains(LocalTime.of(9, 0)));
+		assertFalse(slots.contains(LocalTime.of(9, 5)));
+		assertFalse(slots.contains(LocalTime.of(9, 0, 30)));
+		assertFalse(slots.contains(LocalTime.of(9, 15)));
+	}
+
+	@Test
+	void nextSlotCrossesFromTheLowToTheHighWord() {
+		DailySlots slots = DailySlots.EMPTY.with(10).with(64).with(95);
+		assertEquals(10, slots.nextSlot(-5));
+		assertEquals(10, slots.nextSlot(10));
+		assertEquals(64, slots.nextSlot(11));
+		assertEquals(64, slots.nextSlot(63));
+		assertEquals(95, slots.nextSlot(65));
+		assertEquals(-1, slots.nextSlot(96));
+		assertEquals(-1, DailySlots.EMPTY.with(63).nextSlot(64));
+		assertEquals(63, DailySlots.EMPTY.with(63).nextSlot(0));
+	}
+
+	@Test
+	void morningAndAfternoonSplitAtNoon() {
+		assertTrue(DailySlots.AM.contains(DailySlots.slotIndex(LocalTime.of(11, 45))));
+		assertFalse(DailySlots.AM.contains(DailySlots.slotIndex(LocalTime.NOON)));
+		assertTrue(DailySlots.PM.contains(DailySlots.slotIndex(LocalTime.NOON)));
+		assertFalse(DailySlots.AM.intersects(DailySlots.PM));
+		assertEquals(DailySlots.range(0, 96), DailySlots.AM.or(DailySlots.PM));
+	}
+
+	@Test
+	void filterKeepsTheSlotStringsWhoseStartIsSet() {
+		DailySlots slots = DailySlots.EMPTY.with(LocalTime.of(9, 0)).with(LocalTime.of(16, 0));
+		assertEquals(List.of("09:00-10:00", "16:00-17:00"), slots.filter(List.of("09:00-10:00", "10:00-11:00", "16:00-17:00")));
+	}
+}
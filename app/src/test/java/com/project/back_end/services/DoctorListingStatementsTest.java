@@ -0,0 +1,123 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.WeeklyAvailability;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ScheduleExceptionRepository;
+import com.project.back_end.repo.WeeklyAvailabilityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+// Counts the SQL statements Hibernate prepares while listing doctors, on an in-memory H2 database in MySQL mode.
+// Listing 1,000 doctors must cost the same as listing 10: no per-doctor query, and no lazy loading behind the results.
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:doctor-listing;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DoctorListingStatementsTest {
+
+	// `BackEndApplication` scans every component, which would defeat the JPA slice; only its entities and repositories are needed
+	@SpringBootConfiguration
+	@AutoConfigurationPackage(basePackageClasses = BackEndApplication.class)
+	static class JpaOnly {
+	}
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+	@Autowired
+	private WeeklyAvailabilityRepository weeklyAvailabilityRepository;
+	@Autowired
+	private ScheduleExceptionRepository scheduleExceptionRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private DoctorService doctorService;
+	private Statistics statistics;
+
+	private void setUp(int doctorCount) {
+		for (int i = 1; i <= doctorCount; i++) {
+			Doctor doctor = new Doctor();
+			doctor.setName("Doctor " + i);
+			doctor.setSpecialty("Cardiology");
+			doctor.setEmail("doctor" + i + "@example.com");
+			doctor.setPassword("secret-password");
+			doctor.setPhone(String.format("%011d", i));
+			entityManager.persist(doctor);
+			entityManager.persist(new WeeklyAvailability(doctor, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		SlotHoldRegistry slotHolds = new SlotHoldRegistry(meterRegistry, 120, 1000, 256);
+		AvailabilityIndex availabilityIndex = new AvailabilityIndex(doctorRepository, appointmentRepository,
+				weeklyAvailabilityRepository, scheduleExceptionRepository, slotHolds, meterRegistry, 50000, 600, 0.0);
+		doctorService = new DoctorService(doctorRepository, appointmentRepository, mock(TokenService.class),
+				mock(PrincipalRegistry.class), mock(IdentityCache.class), mock(PasswordService.class), availabilityIndex, slotHolds,
+				mock(ScheduleService.class), new DoctorSearchIndex(doctorRepository, meterRegistry), mock(DoctorDirectory.class),
+				mock(DailyScheduleReadModel.class));
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	private long listingStatements(int doctorCount) {
+		setUp(doctorCount);
+		List<Doctor> doctors = doctorService.getDoctors();
+		assertEquals(doctorCount, doctors.size());
+		for (Doctor doctor : doctors) {
+			assertEquals(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"), doctor.getAvailableTimes());
+		}
+		return statistics.getPrepareStatementCount();
+	}
+
+	@Test
+	void listingDoctorsUsesAConstantNumberOfStatements() {
+		assertEquals(3, listingStatements(1000)); // Doctors, weekly blocks, schedule exceptions
+	}
+
+	@Test
+	void listingTenDoctorsCostsTheSameAsAThousand() {
+		assertEquals(3, listingStatements(10));
+	}
+
+	@Test
+	void schedulesAreNotReloadedOnTheNextListing() {
+		listingStatements(1000);
+		doctorService.getDoctors();
+		assertEquals(4, statistics.getPrepareStatementCount()); // Only the doctors query again
+	}
+
+	@Test
+	void filteringDoctorsUsesAConstantNumberOfStatements() {
+		setUp(1000);
+		List<Doctor> doctors = doctorService.filterDoctors(null, "Cardiology", "AM");
+		assertEquals(1000, doctors.size());
+		assertNotNull(doctors.get(999).getAvailableTimes());
+		assertEquals(3, statistics.getPrepareStatementCount()); // One filtered doctors query, then weekly blocks and exceptions
+	}
+}
@@ -0,0 +1,66 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// Lookups must return the heaviest matches whether they scan the prefix's range or read a precomputed answer.
+class PrefixIndexTest {
+
+	private static PrefixIndex index(Object... keysAndWeights) {
+		Map<String, PrefixIndex.Weighted> entries = new HashMap<>();
+		for (int i = 0; i < keysAndWeights.length; i += 2) {
+			String key = (String) keysAndWeights[i];
+			entries.put(key, new PrefixIndex.Weighted(key.toUpperCase(), (Integer) keysAndWeights[i + 1]));
+		}
+		return PrefixIndex.of(entries);
+	}
+
+	@Test
+	void heaviestMatchesComeFirstAndTiesAreAlphabetical() {
+		PrefixIndex index = index("cardiology", 3, "cardiac surgery", 7, "care", 3, "dermatology", 9);
+		assertEquals(List.of("CARDIAC SURGERY", "CARDIOLOGY", "CARE"), index.top("car", 10));
+		assertEquals(List.of("CARDIAC SURGERY", "CARDIOLOGY"), index.top("car", 2));
+		assertEquals(List.of("CARDIAC SURGERY"), index.top("car", 1));
+	}
+
+	@Test
+	void theRangeEndsWhereThePrefixStopsMatching() {
+		PrefixIndex index = index("car", 1, "card", 2, "cas", 5, "ca", 4);
+		assertEquals(List.of("CARD", "CAR"), index.top("car", 10));
+		assertEquals(List.of("CAS", "CA", "CARD", "CAR"), index.top("ca", 10));
+		assertEquals(List.of(), index.top("carp", 10));
+		assertEquals(List.of(), index.top("zzz", 10));
+		assertEquals(List.of(), PrefixIndex.EMPTY.top("a", 10));
+	}
+
+	@Test
+	void everyWordIsSearchableButSuggestedOnce() {
+		PrefixIndex index = index("john smith", 1, "smith smithson", 2);
+		assertEquals(List.of("JOHN SMITH"), index.top("jo", 10));
+		assertEquals(List.of("SMITH SMITHSON", "JOHN SMITH"), index.top("smi", 10));
+	}
+
+	@Test
+	void precomputedAnswersMatchAScan() {
+		Map<String, PrefixIndex.Weighted> entries = new HashMap<>();
+		for (int i = 0; i < 600; i++) {
+			String key = "a" + String.format("%03d", i);
+			entries.put(key, new PrefixIndex.Weighted(key, i % 50));
+		}
+		PrefixIndex index = PrefixIndex.of(entries);
+		// "a" has 600 terms, so its answer is precomputed; "a04" has 10 and is scanned
+		List<String> top = index.top("a", 3);
+		assertEquals(List.of("a049", "a099", "a149"), top);
+		assertEquals(index.top("a", PrefixIndex.PRECOMPUTED).subList(0, 3), top);
+		// Beyond the precomputed length the lookup scans, and must agree on the common part
+		List<String> scanned = index.top("a", PrefixIndex.PRECOMPUTED + 5);
+		assertEquals(PrefixIndex.PRECOMPUTED + 5, scanned.size());
+		assertEquals(index.top("a", PrefixIndex.PRECOMPUTED), scanned.subList(0, PrefixIndex.PRECOMPUTED));
+		assertEquals(List.of("a049", "a048"), index.top("a04", 2));
+		assertEquals(List.of("a599"), index.top("a599", 5));
+	}
+}
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Holds expire on real time, so the expiry tests use a one-second TTL; a one-millisecond tick and a four-bucket wheel
+// put each deadline about 250 laps ahead of the current bucket.
+class SlotHoldRegistryTest {
+	private static final Long DOCTOR = 1L;
+	private static final Long ALICE = 10L;
+	private static final Long BOB = 20L;
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+	private static final LocalDateTime NINE = DAY.atTime(9, 0);
+	private static final LocalDateTime TEN = DAY.atTime(10, 0);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SlotHoldRegistry registry(long ttlSeconds) {
+		return new SlotHoldRegistry(meterRegistry, ttlSeconds, 1, 4);
+	}
+
+	private double activeHolds() {
+		return meterRegistry.get("slot.holds.active").gauge().value();
+	}
+
+	@Test
+	void aHeldSlotIsRefusedToOtherPatients() {
+		SlotHoldRegistry holds = registry(120);
+		assertNotNull(holds.hold(DOCTOR, NINE, ALICE));
+		assertNull(holds.hold(DOCTOR, NINE, BOB));
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, ALICE));
+		assertFalse(holds.isHeldByOther(DOCTOR + 1, NINE, BOB));
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE.plusDays(1), BOB));
+		assertEquals(1.0, meterRegistry.get("slot.holds.rejected").counter().count());
+	}
+
+	@Test
+	void anAppointmentIsBlockedByAHoldOnAnyHourItCovers() {
+		SlotHoldRegistry holds = registry(120);
+		holds.hold(DOCTOR, TEN, ALICE);
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, 120, BOB));
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, 60, BOB)); // Ends when the held hour starts
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, 120, ALICE));
+	}
+
+	@Test
+	void holdingTheSameSlotAgainExtendsTheHold() throws InterruptedException {
+		SlotHoldRegistry holds = registry(1);
+		SlotHoldRegistry.Hold first = holds.hold(DOCTOR, NINE, ALICE);
+		Thread.sleep(500);
+		SlotHoldRegistry.Hold extended = holds.hold(DOCTOR, NINE, ALICE);
+		assertNotEquals(first.holdId(), extended.holdId());
+		assertTrue(extended.expiresAt() > first.expiresAt());
+		assertEquals(1.0, activeHolds());
+
+		Thread.sleep(700); // Past the first deadline, before the extended one
+		holds.expire();
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		assertEquals(1.0, activeHolds());
+		assertEquals(DailySlots.EMPTY.with(NINE.toLocalTime()), holds.heldSlots(DOCTOR, DAY));
+		assertFalse(holds.release(first.holdId(), ALICE));
+		assertTrue(holds.release(extended.holdId(), ALICE));
+	}
+
+	@Test
+	void holdingAnotherSlotReleasesThePreviousOne() {
+		SlotHoldRegistry holds = registry(120);
+		holds.hold(DOCTOR, NINE, ALICE);
+		holds.hold(DOCTOR, TEN, ALICE);
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		assertTrue(holds.isHeldByOther(DOCTOR, TEN, BOB));
+		assertEquals(1.0, activeHolds());
+	}
+
+	@Test
+	void expiredHoldsStopBlockingBeforeTheWheelReachesThem() throws InterruptedException {
+		SlotHoldRegistry holds = registry(1);
+		holds.hold(DOCTOR, NINE, ALICE);
+		holds.expire(); // Visits every bucket, including the hold's, about 250 laps before its deadline
+		assertEquals(1.0, activeHolds());
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, BOB));
+
+		Thread.sleep(1100);
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		assertEquals(DailySlots.EMPTY, holds.heldSlots(DOCTOR, DAY));
+		assertNotNull(holds.hold(DOCTOR, NINE, BOB)); // An expired hold can be taken over
+		assertEquals(2.0, activeHolds()); // Until the wheel reclaims Alice's
+
+		holds.expire();
+		assertEquals(1.0, activeHolds());
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, ALICE));
+	}
+
+	@Test
+	void theWheelReclaimsExpiredHoldsAfterWrappingAround() throws InterruptedException {
+		SlotHoldRegistry holds = registry(1);
+		holds.hold(DOCTOR, NINE, ALICE);
+		holds.hold(DOCTOR + 1, NINE, BOB);
+		Thread.sleep(1100);
+		holds.expire();
+		assertEquals(0.0, activeHolds());
+		assertTrue(holds.heldSlots(List.of(DOCTOR, DOCTOR + 1), DAY, DAY).isEmpty());
+	}
+
+	@Test
+	void aBookedSlotReleasesItsHold() {
+		SlotHoldRegistry holds = registry(120);
+		holds.hold(DOCTOR, NINE, ALICE);
+		holds.releaseSlot(DOCTOR, TEN, ALICE); // Another slot: kept
+		assertTrue(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		holds.releaseSlot(DOCTOR, NINE, ALICE);
+		assertFalse(holds.isHeldByOther(DOCTOR, NINE, BOB));
+		assertEquals(0.0, activeHolds());
+	}
+}